@@ -0,0 +1,246 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingAvailabilityIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingJpaRepository bookingRepository;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final ConcurrentMap<Long, ItemTree> trees = new ConcurrentHashMap<>();
+    private final AtomicLong holdIds = new AtomicLong();
+
+    public BookingAvailabilityIndex(BookingJpaRepository bookingRepository,
+                                    @Value("${shareit.booking.index.maximum-size:10000}") int maximumSize,
+                                    @Value("${shareit.booking.index.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        while (true) {
+            ItemTree itemTree = getTree(itemId);
+            synchronized (itemTree) {
+                if (!itemTree.retired) {
+                    return !itemTree.tree.overlaps(start, end);
+                }
+            }
+        }
+    }
+
+    public boolean tryReserve(Booking booking) {
+        long itemId = booking.getItem().getId();
+        boolean tracked = TransactionSynchronizationManager.isSynchronizationActive();
+        while (true) {
+            ItemTree itemTree = getTree(itemId);
+            synchronized (itemTree) {
+                if (itemTree.retired) {
+                    continue;
+                }
+                if (itemTree.tree.contains(booking.getId())) {
+                    return true;
+                }
+                if (itemTree.tree.overlaps(booking.getStart(), booking.getEnd())) {
+                    return false;
+                }
+                itemTree.tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+                if (tracked) {
+                    itemTree.pending++;
+                }
+            }
+            if (tracked) {
+                releaseAfterCompletion(itemTree, booking.getId(), false);
+            }
+            return true;
+        }
+    }
+
+    Hold tryHold(long itemId, LocalDateTime start, LocalDateTime end) {
+        long holdId = holdIds.decrementAndGet();
+        boolean tracked = TransactionSynchronizationManager.isSynchronizationActive();
+        while (true) {
+            ItemTree itemTree = getTree(itemId);
+            synchronized (itemTree) {
+                if (itemTree.retired) {
+                    continue;
+                }
+                if (itemTree.tree.overlaps(start, end)) {
+                    return null;
+                }
+                itemTree.tree.insert(holdId, start, end);
+                if (tracked) {
+                    itemTree.pending++;
+                }
+            }
+            if (tracked) {
+                releaseAfterCompletion(itemTree, holdId, true);
+            }
+            return new Hold(itemTree, holdId);
+        }
+    }
+
+    void confirm(Hold hold, Booking booking) {
+        synchronized (hold.itemTree) {
+            hold.itemTree.tree.remove(hold.holdId);
+            hold.itemTree.tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        long bookingId = booking.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus != STATUS_COMMITTED) {
+                    synchronized (hold.itemTree) {
+                        hold.itemTree.tree.remove(bookingId);
+                    }
+                }
+            }
+        });
+    }
+
+    public void update(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        BookingStatus status = booking.getStatus();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, bookingId, start, end, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(itemId, bookingId, start, end, status);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.index.prune-interval:PT1M}",
+            initialDelayString = "${shareit.booking.index.prune-interval:PT1M}")
+    public void prune() {
+        long now = System.nanoTime();
+        trees.forEach((itemId, itemTree) -> {
+            if (now - itemTree.loadedAt > ttlNanos) {
+                retire(itemId, itemTree);
+            }
+        });
+        int excess = trees.size() - maximumSize;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, ItemTree>> byLastAccess = trees.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .collect(Collectors.toList());
+        for (Map.Entry<Long, ItemTree> entry : byLastAccess) {
+            if (excess == 0) {
+                break;
+            }
+            if (retire(entry.getKey(), entry.getValue())) {
+                excess--;
+            }
+        }
+    }
+
+    int size() {
+        return trees.size();
+    }
+
+    private ItemTree getTree(long itemId) {
+        ItemTree itemTree = trees.get(itemId);
+        if (itemTree == null) {
+            ItemTree loaded = loadTree(itemId);
+            itemTree = trees.putIfAbsent(itemId, loaded);
+            if (itemTree == null) {
+                itemTree = loaded;
+            }
+        }
+        itemTree.lastAccess = System.nanoTime();
+        return itemTree;
+    }
+
+    private ItemTree loadTree(long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingRepository.findActiveBookingsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(b -> tree.insert(b.getId(), b.getStart(), b.getEnd()));
+        return new ItemTree(tree);
+    }
+
+    private boolean retire(long itemId, ItemTree itemTree) {
+        synchronized (itemTree) {
+            if (itemTree.pending == 0 && trees.remove(itemId, itemTree)) {
+                itemTree.retired = true;
+            }
+            return itemTree.retired;
+        }
+    }
+
+    private void apply(long itemId, long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        ItemTree itemTree = trees.get(itemId);
+        if (itemTree == null) {
+            return;
+        }
+        synchronized (itemTree) {
+            if (ACTIVE_STATUSES.contains(status)) {
+                itemTree.tree.insert(bookingId, start, end);
+            } else {
+                itemTree.tree.remove(bookingId);
+            }
+        }
+    }
+
+    private void releaseAfterCompletion(ItemTree itemTree, long bookingId, boolean always) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                synchronized (itemTree) {
+                    if (always || completionStatus != STATUS_COMMITTED) {
+                        itemTree.tree.remove(bookingId);
+                    }
+                    itemTree.pending--;
+                }
+            }
+        });
+    }
+
+    static class Hold {
+        private final ItemTree itemTree;
+        private final long holdId;
+
+        private Hold(ItemTree itemTree, long holdId) {
+            this.itemTree = itemTree;
+            this.holdId = holdId;
+        }
+    }
+
+    private static class ItemTree {
+        private final BookingIntervalTree tree;
+        private final long loadedAt = System.nanoTime();
+        private volatile long lastAccess = loadedAt;
+        private int pending;
+        private boolean retired;
+
+        ItemTree(BookingIntervalTree tree) {
+            this.tree = tree;
+        }
+    }
+}
@@ -2,12 +2,20 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.validation.Create;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -18,7 +26,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @GetMapping(value = "/{bookingId}")
     public BookingOutDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -29,25 +39,48 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingOutDto> getBookingBooker(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                                @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                                @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        List<BookingOutDto> bookings = bookingService.getAllBookingByBooker(state, bookerId, from, size);
-        log.info("Get -запрос:  Все бронирования from = {} size = {}", from, size);
+    public ResponseEntity<List<BookingOutDto>> getBookingBooker(
+            @RequestHeader("X-Sharer-User-Id") long bookerId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        List<BookingOutDto> bookings = after == null
+                ? bookingService.getAllBookingByBooker(state, bookerId, from, size)
+                : bookingService.getAllBookingByBookerAfter(state, bookerId, after, size);
+        log.info("Get -запрос:  Все бронирования from = {} size = {} after = {}", from, size, after);
         log.info("Get -запрос:  У пользователя с id = {} всего бронирований {} : - {}", bookerId, bookings.size(), bookings);
-        return bookings;
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingOutDto> getAllBookingOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                  @RequestParam(value = "state", defaultValue = "ALL") String state,
-                                                  @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        List<BookingOutDto> bookings = bookingService.getAllBookingByOwner(state, ownerId, from, size);
-        log.info("Get -запрос:  Все бронирования from = {} size = {}", from, size);
+    public ResponseEntity<List<BookingOutDto>> getAllBookingOwner(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        List<BookingOutDto> bookings = after == null
+                ? bookingService.getAllBookingByOwner(state, ownerId, from, size)
+                : bookingService.getAllBookingByOwnerAfter(state, ownerId, after, size);
+        log.info("Get -запрос:  Все бронирования from = {} size = {} after = {}", from, size, after);
         log.info("Get -запрос:  У владельца с id {} брони: {}", ownerId, bookings);
-        return bookings;
+        return withNextCursor(bookings, size);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType csvType = MediaType.parseMediaType(BookingExportService.CSV);
+        boolean csv = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> !type.isWildcardType() && !type.isWildcardSubtype() && type.isCompatibleWith(csvType));
+        StreamingResponseBody body = bookingExportService.exportBookingsByOwner(ownerId, csv);
+        log.info("Get -запрос:  Выгрузка всех бронирований владельца с id = {} в формате {}",
+                ownerId, csv ? "CSV" : "NDJSON");
+        return ResponseEntity.ok()
+                .contentType(csv ? csvType : MediaType.parseMediaType(BookingExportService.NDJSON))
+                .body(body);
     }
 
     @PostMapping
@@ -58,6 +91,15 @@ public class BookingController {
         return newBooking;
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> saveNewBookings(
+            @RequestHeader("X-Sharer-User-Id") Long bookerId,
+            @Valid @RequestBody List<@NotNull(message = "Пустой элемент в пакете бронирований") BookingInDto> bookingInDtos) {
+        List<BookingBatchResultDto> results = bookingService.saveNewBookings(bookerId, bookingInDtos);
+        log.info("Post-запрос:  пользователь {} отправил пакет из {} бронирований", bookerId, bookingInDtos.size());
+        return results;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingOutDto approvedBooking(@RequestHeader("X-Sharer-User-Id") long bookerId,
                                          @RequestParam String approved,
@@ -66,4 +108,23 @@ public class BookingController {
         log.info("Patch-Запрос: бронирование подтверждено владельцем вещи {}", booking);
         return booking;
     }
+
+    @PatchMapping("/owner/decisions")
+    public List<BookingOutDto> decideBookings(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestBody List<@NotNull(message = "Пустой элемент в пакете решений") BookingDecisionDto> decisions) {
+        List<BookingOutDto> bookings = bookingService.decideBookings(ownerId, decisions);
+        log.info("Patch-Запрос: владелец {} принял решения по {} бронированиям", ownerId, bookings.size());
+        return bookings;
+    }
+
+    private ResponseEntity<List<BookingOutDto>> withNextCursor(List<BookingOutDto> bookings, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingCursor cursor = BookingCursor.of(bookings.get(bookings.size() - 1));
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursor.encode())
+                .body(bookings);
+    }
 }
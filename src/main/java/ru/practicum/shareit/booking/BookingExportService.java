@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.user.UserLookup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class BookingExportService {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+    static final int FLUSH_EVERY = 500;
+    private static final String CSV_HEADER = "id,start,end,status,bookerId,bookerName,itemId,itemName";
+
+    private final BookingJpaRepository bookingRepository;
+    private final UserLookup userLookup;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExportService(BookingJpaRepository bookingRepository, UserLookup userLookup,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userLookup = userLookup;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportBookingsByOwner(long ownerId, boolean csv) {
+        userLookup.checkExists(ownerId);
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long exported = transactionTemplate.execute(status -> {
+                try (Stream<BookingOutDto> bookings = bookingRepository.streamBookingByItemOwnerId(ownerId)) {
+                    return write(bookings.iterator(), writer, csv);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            log.info("Выгружено {} бронирований владельца с id = {}", exported, ownerId);
+        };
+    }
+
+    private long write(Iterator<BookingOutDto> bookings, Writer writer, boolean csv) throws IOException {
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        while (bookings.hasNext()) {
+            BookingOutDto booking = bookings.next();
+            writer.write(csv ? toCsvLine(booking) : objectMapper.writeValueAsString(booking));
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        return count;
+    }
+
+    private String toCsvLine(BookingOutDto booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                booking.getStatus().name(),
+                String.valueOf(booking.getBooker().getId()),
+                csvValue(booking.getBooker().getName()),
+                String.valueOf(booking.getItem().getId()),
+                csvValue(booking.getItem().getName()));
+    }
+
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
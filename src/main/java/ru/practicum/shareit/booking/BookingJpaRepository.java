@@ -3,39 +3,139 @@ package ru.practicum.shareit.booking;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingJpaRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findBookingByBooker_Id(long userId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime nowDate, Sort sort);
+public interface BookingJpaRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
+    String SELECT_BOOKING_OUT_DTO = " select new ru.practicum.shareit.booking.dto.BookingOutDto(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, i.id, i.name) " +
+            "from Booking b join b.item i join b.booker bk ";
 
-    List<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime nowDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.booker.id = ?1")
+    List<BookingOutDto> findBookingByBooker_Id(long userId, Pageable pageable);
 
-    List<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(
-            Long bookerId, LocalDateTime nowStartDate, LocalDateTime nowEndDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.booker.id = ?1 and b.start > ?2")
+    List<BookingOutDto> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime nowDate, Pageable pageable);
 
-    List<Booking> findBookingByBooker_IdAndStatus(long bookerId, BookingStatus status);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.booker.id = ?1 and b.end < ?2")
+    List<BookingOutDto> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime nowDate, Pageable pageable);
 
-    List<Booking> findBookingByItemOwnerId(long userId, Pageable pageable);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
+    List<BookingOutDto> findByBooker_IdAndStartIsBeforeAndEndIsAfter(
+            Long bookerId, LocalDateTime nowStartDate, LocalDateTime nowEndDate, Pageable pageable);
 
-    List<Booking> findBookingByItemOwnerIdAndStatus(long userId, BookingStatus status);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.booker.id = ?1 and b.status = ?2")
+    List<BookingOutDto> findBookingByBooker_IdAndStatus(long bookerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findBookingByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime nowDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1")
+    List<BookingOutDto> findBookingByItemOwnerId(long userId, Pageable pageable);
 
-    List<Booking> findBookingByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime nowDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1 and b.status = ?2")
+    List<BookingOutDto> findBookingByItemOwnerIdAndStatus(long userId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-            Long bookerId, LocalDateTime nowStartDate, LocalDateTime nowEndDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1 and b.start > ?2")
+    List<BookingOutDto> findBookingByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime nowDate, Pageable pageable);
 
-    List<Booking> findBookingByItemIdAndEndIsBefore(long itemId, LocalDateTime nowEndDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1 and b.end < ?2")
+    List<BookingOutDto> findBookingByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime nowDate, Pageable pageable);
 
-    List<Booking> findBookingByItemIdAndStartIsBefore(long itemId, LocalDateTime nowEndDate, Sort sort);
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1 and b.start < ?2 and b.end > ?3")
+    List<BookingOutDto> findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
+            Long bookerId, LocalDateTime nowStartDate, LocalDateTime nowEndDate, Pageable pageable);
 
-    List<Booking> findBookingByItemIdAndStartIsAfterAndStatusIsNot(
-            long itemId, LocalDateTime nowStartDate, BookingStatus status, Sort sort);
+    @Query(" select b from Booking b " +
+            "where b.item.id = ?1 and b.end < ?2")
+    List<Booking> findBookingByItemIdAndEndIsBefore(long itemId, LocalDateTime nowEndDate, Sort sort);
 
+    @Query(" select b from Booking b " +
+            "where b.booker.id = ?1 and b.item.id = ?2 and b.end < ?3")
     List<Booking> findByBooker_IdAndItem_IdAndEndIsBefore(long bookerId, long itemId, LocalDateTime nowEndDate);
+
+    @Query(" select b from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<Booking> findActiveBookingsByItemId(long itemId, List<BookingStatus> statuses, LocalDateTime nowDate);
+
+    @Query(" select b.id as id, b.booker.id as bookerId, b.item.id as itemId from Booking b " +
+            "where b.item.id = ?1 and b.start < ?2 " +
+            "order by b.start desc")
+    List<BookingShort> findLastBookingByItemId(long itemId, LocalDateTime nowDate, Pageable pageable);
+
+    @Query(" select b.id as id, b.booker.id as bookerId, b.item.id as itemId from Booking b " +
+            "where b.item.id = ?1 and b.start > ?2 and b.status <> ?3 " +
+            "order by b.start")
+    List<BookingShort> findNextBookingByItemId(
+            long itemId, LocalDateTime nowDate, BookingStatus status, Pageable pageable);
+
+    @Query(value = "select b.id as id, b.booker_id as bookerId, b.item_id as itemId from ( " +
+            "select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.start_date desc) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in ?1 and bk.start_date < ?2) b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShort> findLastBookingsByItemIds(List<Long> itemIds, LocalDateTime nowDate);
+
+    @Query(value = "select b.id as id, b.booker_id as bookerId, b.item_id as itemId from ( " +
+            "select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.start_date) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in ?1 and bk.start_date > ?2 and bk.status <> 'REJECTED') b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShort> findNextBookingsByItemIds(List<Long> itemIds, LocalDateTime nowDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select b from Booking b where b.id = ?1")
+    Optional<Booking> lockBookingById(long bookingId);
+
+    @Query(" select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.id <> ?2 and b.status = ?3 and b.start < ?5 and b.end > ?4")
+    boolean existsOverlappingBooking(long itemId, long bookingId, BookingStatus status,
+                                     LocalDateTime start, LocalDateTime end);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select b from Booking b " +
+            "where b.id in ?1 and b.item.id in (select i.id from Item i where i.owner.id = ?2) " +
+            "order by b.id")
+    List<Booking> lockOwnerBookingsByIds(List<Long> bookingIds, long ownerId);
+
+    @Query(" select b from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<Booking> findBookingsByItemIdsAndStatusInPeriod(List<Long> itemIds, BookingStatus status,
+                                                         LocalDateTime start, LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = ?1 " +
+            "where b.id in ?2 and b.item.id in (select i.id from Item i where i.owner.id = ?3)")
+    int updateOwnerBookingsStatus(BookingStatus status, List<Long> bookingIds, long ownerId);
+
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where b.id in ?1")
+    List<BookingOutDto> findBookingOutDtosByIds(List<Long> bookingIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_BOOKING_OUT_DTO +
+            "where i.owner.id = ?1 order by b.id")
+    Stream<BookingOutDto> streamBookingByItemOwnerId(long ownerId);
 }
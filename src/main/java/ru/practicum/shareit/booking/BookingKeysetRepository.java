@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+    List<BookingOutDto> findBookerBookingsAfter(
+            long bookerId, BookingState state, LocalDateTime nowDate, BookingCursor after, int size);
+
+    List<BookingOutDto> findOwnerBookingsAfter(
+            long ownerId, BookingState state, LocalDateTime nowDate, BookingCursor after, int size);
+}
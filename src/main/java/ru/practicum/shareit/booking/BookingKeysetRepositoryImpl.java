@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingOutDto> findBookerBookingsAfter(
+            long bookerId, BookingState state, LocalDateTime nowDate, BookingCursor after, int size) {
+        return findBookingsAfter(false, bookerId, state, nowDate, after, size);
+    }
+
+    @Override
+    public List<BookingOutDto> findOwnerBookingsAfter(
+            long ownerId, BookingState state, LocalDateTime nowDate, BookingCursor after, int size) {
+        return findBookingsAfter(true, ownerId, state, nowDate, after, size);
+    }
+
+    private List<BookingOutDto> findBookingsAfter(boolean byOwner, long userId, BookingState state,
+                                                  LocalDateTime nowDate, BookingCursor after, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingOutDto> query = cb.createQuery(BookingOutDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (byOwner) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userId));
+        }
+
+        switch (state) {
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, nowDate));
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(start, nowDate));
+                predicates.add(cb.greaterThan(end, nowDate));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, nowDate));
+                break;
+            default:
+                break;
+        }
+
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(BookingOutDto.class, id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("name"), item.get("id"), item.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return em.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
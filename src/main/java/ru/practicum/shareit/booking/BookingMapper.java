@@ -42,4 +42,12 @@ public class BookingMapper {
     public static BookingNextDto mapToBookingNextDto(Booking booking) {
         return new BookingNextDto(booking.getId(), booking.getBooker().getId());
     }
+
+    public static BookingLastDto mapToBookingLastDto(BookingShort booking) {
+        return new BookingLastDto(booking.getId(), booking.getBookerId());
+    }
+
+    public static BookingNextDto mapToBookingNextDto(BookingShort booking) {
+        return new BookingNextDto(booking.getId(), booking.getBookerId());
+    }
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 
@@ -10,9 +12,17 @@ public interface BookingService {
 
     BookingOutDto saveNewBooking(long bookerId, BookingInDto bookingDto);
 
+    List<BookingBatchResultDto> saveNewBookings(long bookerId, List<BookingInDto> bookingDtos);
+
     BookingOutDto updateBooking(long bookerId, long bookingId, String approved);
 
+    List<BookingOutDto> decideBookings(long ownerId, List<BookingDecisionDto> decisions);
+
     List<BookingOutDto> getAllBookingByBooker(String state, long booker, Integer from, Integer size);
 
     List<BookingOutDto> getAllBookingByOwner(String state, long booker, Integer from, Integer size);
+
+    List<BookingOutDto> getAllBookingByBookerAfter(String state, long booker, String after, Integer size);
+
+    List<BookingOutDto> getAllBookingByOwnerAfter(String state, long owner, String after, Integer size);
 }
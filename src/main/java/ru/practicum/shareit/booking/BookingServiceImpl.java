@@ -6,39 +6,58 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemIdFilter;
 import ru.practicum.shareit.item.ItemJpaRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    static final int MAX_BATCH_SIZE = 100;
+
     private final BookingJpaRepository bookingRepository;
-    private final UserJpaRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemJpaRepository itemRepository;
+    private final ItemIdFilter itemIdFilter;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public List<BookingOutDto> getAllBookingByBooker(String state, long userId, Integer from, Integer size) {
         if (state.equals("UNSUPPORTED_STATUS")) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
-        checkingExistUser(userId);
+        userLookup.checkExists(userId);
         BookingState bookingState = BookingState.valueOf(state);
-        Sort startSort = Sort.by("start").descending();
+        Sort startSort = Sort.by("start").descending().and(Sort.by("id").descending());
         Pageable pageable = FromSizeRequest.of(from, size, startSort);
-        List<Booking> bookings = new ArrayList<>();
+        List<BookingOutDto> bookings = new ArrayList<>();
 
         switch (bookingState) {
             case ALL:
@@ -47,30 +66,30 @@ public class BookingServiceImpl implements BookingService {
                         userId, bookings.size(), bookings);
                 break;
             case WAITING:
-                bookings = bookingRepository.findBookingByBooker_IdAndStatus(userId, BookingStatus.WAITING);
+                bookings = bookingRepository.findBookingByBooker_IdAndStatus(userId, BookingStatus.WAITING, pageable);
                 log.info("Данные о бронированиях пользователя с id = {}, ожидающих подтверждения", userId);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findBookingByBooker_IdAndStatus(userId, BookingStatus.REJECTED);
+                bookings = bookingRepository.findBookingByBooker_IdAndStatus(userId, BookingStatus.REJECTED, pageable);
                 log.info("Данные о бронированиях пользователя с id = {}, отклоненных владельцем вещи", userId);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByBooker_IdAndStartIsAfter(userId, LocalDateTime.now(), startSort);
+                bookings = bookingRepository.findByBooker_IdAndStartIsAfter(userId, LocalDateTime.now(), pageable);
                 log.info("Все предстоящие бронированиях для пользователя с id = {}: - {}", userId, bookings);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), startSort);
+                        userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
                 log.info("Данные о текущих бронированиях у пользователя с id = {}", userId);
                 break;
             case PAST:
-                bookings = bookingRepository.findByBooker_IdAndEndIsBefore(userId, LocalDateTime.now(), startSort);
+                bookings = bookingRepository.findByBooker_IdAndEndIsBefore(userId, LocalDateTime.now(), pageable);
                 log.info("Данные о завершенных бронированиях у пользователя с id = {}", userId);
                 break;
             default:
                 break;
         }
-        return BookingMapper.mapToListBookingOutDto(bookings);
+        return bookings;
     }
 
     @Override
@@ -78,11 +97,11 @@ public class BookingServiceImpl implements BookingService {
         if (state.equals("UNSUPPORTED_STATUS")) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
-        checkingExistUser(userId);
+        userLookup.checkExists(userId);
         BookingState bookingState = BookingState.valueOf(state);
-        Sort startSort = Sort.by("start").descending();
+        Sort startSort = Sort.by("start").descending().and(Sort.by("id").descending());
         Pageable pageable = FromSizeRequest.of(from, size, startSort);
-        List<Booking> bookings = new ArrayList<>();
+        List<BookingOutDto> bookings = new ArrayList<>();
 
         switch (bookingState) {
             case ALL:
@@ -92,38 +111,62 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case WAITING:
                 bookings = bookingRepository.findBookingByItemOwnerIdAndStatus(
-                        userId, BookingStatus.WAITING);
+                        userId, BookingStatus.WAITING, pageable);
                 log.info("Все бронирования,ожидающие подтверждения, владельцем с id = {}", userId);
                 break;
             case REJECTED:
                 bookings = bookingRepository.findBookingByItemOwnerIdAndStatus(
-                        userId, BookingStatus.REJECTED);
+                        userId, BookingStatus.REJECTED, pageable);
                 log.info("Все бронирования,отклоненные владельцем вещи с id = {}", userId);
                 break;
             case FUTURE:
                 bookings = bookingRepository.findBookingByItemOwnerIdAndStartIsAfter(
-                        userId, LocalDateTime.now(), startSort);
+                        userId, LocalDateTime.now(), pageable);
                 log.info("Все предстоящие бронированиях для владельца с id = {}: - {}", userId, bookings);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), startSort);
+                        userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
                 log.info("Данные о всех текущих бронированиях для владельца с id = {}", userId);
                 break;
             case PAST:
                 bookings = bookingRepository.findBookingByItemOwnerIdAndEndIsBefore(
-                        userId, LocalDateTime.now(), startSort);
+                        userId, LocalDateTime.now(), pageable);
                 log.info("Данные о завершенных бронированиях у владельца с id = {}", userId);
                 break;
             default:
                 break;
         }
-        return BookingMapper.mapToListBookingOutDto(bookings);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingOutDto> getAllBookingByBookerAfter(String state, long userId, String after, Integer size) {
+        if (state.equals("UNSUPPORTED_STATUS")) {
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        userLookup.checkExists(userId);
+        List<BookingOutDto> bookings = bookingRepository.findBookerBookingsAfter(
+                userId, BookingState.valueOf(state), LocalDateTime.now(), BookingCursor.decode(after), size);
+        log.info("Бронирования пользователя с id = {} в состоянии {} после курсора {}", userId, state, after);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingOutDto> getAllBookingByOwnerAfter(String state, long userId, String after, Integer size) {
+        if (state.equals("UNSUPPORTED_STATUS")) {
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        userLookup.checkExists(userId);
+        List<BookingOutDto> bookings = bookingRepository.findOwnerBookingsAfter(
+                userId, BookingState.valueOf(state), LocalDateTime.now(), BookingCursor.decode(after), size);
+        log.info("Бронирования владельца с id = {} в состоянии {} после курсора {}", userId, state, after);
+        return bookings;
     }
 
     @Override
     public BookingOutDto getBookingById(long userId, long bookingId) {
-        checkingExistUser(userId);
+        userLookup.checkExists(userId);
         Booking booking = checkingExistBooking(bookingId);
 
         if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
@@ -136,29 +179,82 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingOutDto saveNewBooking(long bookerId, BookingInDto bookingInDto) {
-        User booker = checkingExistUser(bookerId);
+        User booker = userLookup.getUser(bookerId);
         Item item = checkingExistItem(bookingInDto.getItemId());
+        Booking booking = prepareBooking(booker, item, bookingInDto);
 
-        if (bookerId == item.getOwner().getId()) {
-            throw new NotFoundException("Владелец не может забронировать свою вещь");
+        if (!availabilityIndex.isAvailable(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Вещь уже забронирована на указанный период");
         }
 
-        if (item.getAvailable() == false) {
-            throw new ValidationException("Данная вещь не доступна для бронирования");
-        }
-
-        Booking booking = BookingMapper.mapToBooking(item, booker, bookingInDto);
-        validationBooking(booking);
-        booking.setStatus(BookingStatus.WAITING);
         Booking newBooking = bookingRepository.save(booking);
+
+        if (!availabilityIndex.tryReserve(newBooking)) {
+            throw new ValidationException("Вещь уже забронирована на указанный период");
+        }
+        itemDetailsCache.evictOwnerBookings(item.getId());
         return BookingMapper.mapToBookingOutDto(newBooking);
     }
 
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> saveNewBookings(long bookerId, List<BookingInDto> bookingInDtos) {
+        if (bookingInDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(
+                    String.format("В пакете не может быть больше %s бронирований", MAX_BATCH_SIZE));
+        }
+        if (bookingInDtos.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Пустой элемент в пакете бронирований");
+        }
+        User booker = userLookup.getUser(bookerId);
+        Set<Long> itemIds = bookingInDtos.stream()
+                .map(BookingInDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingInDtos.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<BookingAvailabilityIndex.Hold> holds = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingInDtos.size(); i++) {
+            BookingInDto bookingInDto = bookingInDtos.get(i);
+            try {
+                Booking booking = prepareBatchBooking(booker, items, bookingInDto);
+                BookingAvailabilityIndex.Hold hold = availabilityIndex.tryHold(
+                        booking.getItem().getId(), booking.getStart(), booking.getEnd());
+                if (hold == null) {
+                    throw new ValidationException("Вещь уже забронирована на указанный период");
+                }
+                accepted.add(booking);
+                holds.add(hold);
+                acceptedIndexes.add(i);
+            } catch (ValidationException | NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, null, e.getMessage());
+            }
+        }
+
+        List<Booking> newBookings = bookingRepository.saveAll(accepted);
+        Set<Long> bookedItemIds = new HashSet<>();
+        for (int i = 0; i < newBookings.size(); i++) {
+            Booking newBooking = newBookings.get(i);
+            int index = acceptedIndexes.get(i);
+            availabilityIndex.confirm(holds.get(i), newBooking);
+            results[index] = new BookingBatchResultDto(index, BookingMapper.mapToBookingOutDto(newBooking), null);
+            bookedItemIds.add(newBooking.getItem().getId());
+        }
+        bookedItemIds.forEach(itemDetailsCache::evictOwnerBookings);
+        log.info("Пользователь с id = {} создал {} из {} бронирований пакетом",
+                bookerId, newBookings.size(), bookingInDtos.size());
+        return Arrays.asList(results);
+    }
+
     @Transactional
     @Override
     public BookingOutDto updateBooking(long bookerId, long bookingId, String approved) {
-        checkingExistUser(bookerId);
-        Booking booking = checkingExistBooking(bookingId);
+        userLookup.checkExists(bookerId);
+        Booking booking = lockBooking(bookingId);
 
         if (booking.getItem().getOwner().getId() != bookerId) {
             throw new NotFoundException("Только владелец вещи может подтвердить или отклонить запрос на бронирование!");
@@ -169,8 +265,15 @@ public class BookingServiceImpl implements BookingService {
             if (booking.getStatus() == BookingStatus.APPROVED) {
                 throw new ValidationException("Бронирование уже подтверждено владельцем");
             } else {
+                itemRepository.lockItemById(booking.getItem().getId());
+                if (bookingRepository.existsOverlappingBooking(booking.getItem().getId(), booking.getId(),
+                        BookingStatus.APPROVED, booking.getStart(), booking.getEnd())) {
+                    throw new ConflictException("Вещь уже забронирована на указанный период");
+                }
                 booking.setStatus(BookingStatus.APPROVED);
                 bookingRepository.save(booking);
+                availabilityIndex.update(booking);
+                itemDetailsCache.evictOwnerBookings(booking.getItem().getId());
                 return BookingMapper.mapToBookingOutDto(booking);
             }
         } else {
@@ -179,17 +282,152 @@ public class BookingServiceImpl implements BookingService {
             } else {
                 booking.setStatus(BookingStatus.REJECTED);
                 bookingRepository.save(booking);
+                availabilityIndex.update(booking);
+                itemDetailsCache.evictOwnerBookings(booking.getItem().getId());
                 return BookingMapper.mapToBookingOutDto(booking);
             }
         }
     }
 
-    private User checkingExistUser(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id=%s не найден", userId)));
+    @Transactional
+    @Override
+    public List<BookingOutDto> decideBookings(long ownerId, List<BookingDecisionDto> decisions) {
+        if (decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(
+                    String.format("В пакете не может быть больше %s решений по бронированиям", MAX_BATCH_SIZE));
+        }
+        userLookup.checkExists(ownerId);
+        Map<Long, Boolean> approvals = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision == null || decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new ValidationException("Не задано бронирование или решение по нему");
+            }
+            if (approvals.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new ValidationException(
+                        String.format("Бронирование с id=%s указано несколько раз", decision.getBookingId()));
+            }
+        }
+        if (approvals.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> bookingIds = new ArrayList<>(approvals.keySet());
+        List<Booking> bookings = bookingRepository.lockOwnerBookingsByIds(bookingIds, ownerId);
+        if (bookings.size() != bookingIds.size()) {
+            throw new NotFoundException("Только владелец вещи может подтвердить или отклонить запрос на бронирование!");
+        }
+
+        List<Booking> approved = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (approvals.get(booking.getId())) {
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    throw new ValidationException(
+                            String.format("Бронирование с id=%s уже подтверждено владельцем", booking.getId()));
+                }
+                approved.add(booking);
+            } else {
+                if (booking.getStatus() == BookingStatus.REJECTED) {
+                    throw new ValidationException(
+                            String.format("Бронирование с id=%s уже отклонено владельцем", booking.getId()));
+                }
+                rejected.add(booking);
+            }
+        }
+        checkApprovedOverlaps(approved, rejected);
+
+        updateStatus(approved, BookingStatus.APPROVED, ownerId);
+        updateStatus(rejected, BookingStatus.REJECTED, ownerId);
+        bookings.forEach(availabilityIndex::update);
+        bookings.stream()
+                .map(b -> b.getItem().getId())
+                .distinct()
+                .forEach(itemDetailsCache::evictOwnerBookings);
+
+        Map<Long, BookingOutDto> updated = bookingRepository.findBookingOutDtosByIds(bookingIds).stream()
+                .collect(Collectors.toMap(BookingOutDto::getId, Function.identity()));
+        log.info("Владелец с id = {} подтвердил {} и отклонил {} бронирований", ownerId, approved.size(), rejected.size());
+        return bookingIds.stream()
+                .map(updated::get)
+                .collect(Collectors.toList());
+    }
+
+    private Booking prepareBooking(User booker, Item item, BookingInDto bookingInDto) {
+        if (booker.getId().equals(item.getOwner().getId())) {
+            throw new NotFoundException("Владелец не может забронировать свою вещь");
+        }
+
+        if (item.getAvailable() == false) {
+            throw new ValidationException("Данная вещь не доступна для бронирования");
+        }
+
+        Booking booking = BookingMapper.mapToBooking(item, booker, bookingInDto);
+        validationBooking(booking);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private Booking prepareBatchBooking(User booker, Map<Long, Item> items, BookingInDto bookingInDto) {
+        if (bookingInDto.getStart() == null) {
+            throw new ValidationException("Не задана дата начала бронирования");
+        }
+        if (bookingInDto.getEnd() == null) {
+            throw new ValidationException("Не задана дата окончания бронирования");
+        }
+        Item item = items.get(bookingInDto.getItemId());
+        if (item == null) {
+            throw new NotFoundException(String.format("Вещь с id=%s не найдена", bookingInDto.getItemId()));
+        }
+        return prepareBooking(booker, item, bookingInDto);
+    }
+
+    private void checkApprovedOverlaps(List<Booking> approved, List<Booking> rejected) {
+        if (approved.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = approved.stream()
+                .map(b -> b.getItem().getId())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        itemRepository.lockItemsByIds(itemIds);
+
+        LocalDateTime start = approved.stream().map(Booking::getStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime end = approved.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).get();
+        Set<Long> rejectedIds = rejected.stream().map(Booking::getId).collect(Collectors.toSet());
+        Map<Long, BookingIntervalTree> trees = new HashMap<>();
+        for (Booking booking : bookingRepository.findBookingsByItemIdsAndStatusInPeriod(
+                itemIds, BookingStatus.APPROVED, start, end)) {
+            if (!rejectedIds.contains(booking.getId())) {
+                trees.computeIfAbsent(booking.getItem().getId(), id -> new BookingIntervalTree())
+                        .insert(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+        }
+        for (Booking booking : approved) {
+            BookingIntervalTree tree = trees.computeIfAbsent(booking.getItem().getId(), id -> new BookingIntervalTree());
+            if (tree.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new ConflictException(
+                        String.format("Вещь уже забронирована на период бронирования с id=%s", booking.getId()));
+            }
+            tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+
+    private void updateStatus(List<Booking> bookings, BookingStatus status, long ownerId) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> bookingIds = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        if (bookingRepository.updateOwnerBookingsStatus(status, bookingIds, ownerId) != bookingIds.size()) {
+            throw new ConflictException("Бронирования были изменены во время обработки");
+        }
+        bookings.forEach(b -> b.setStatus(status));
     }
 
     private Item checkingExistItem(long itemId) {
+        if (itemIdFilter.isAbsent(itemId)) {
+            throw new NotFoundException(String.format("Вещь с id=%s не найдена", itemId));
+        }
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с id=%s не найдена", itemId)));
     }
@@ -199,6 +437,11 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id=%s не найдено", bookingId)));
     }
 
+    private Booking lockBooking(long bookingId) {
+        return bookingRepository.lockBookingById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id=%s не найдено", bookingId)));
+    }
+
     private void validationBooking(Booking booking) {
         if (booking.getStart().isAfter(booking.getEnd())) {
             throw new ValidationException(
@@ -15,4 +15,9 @@ public class BookingOutDto {
     private BookingStatus status;
     private BookingBookerDto booker;
     private BookingItemDto item;
+
+    public BookingOutDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long bookerId, String bookerName, Long itemId, String itemName) {
+        this(id, start, end, status, new BookingBookerDto(bookerId, bookerName), new BookingItemDto(itemId, itemName));
+    }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingShort {
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+}
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentJpaRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findCommentByItem_Id(long itemId);
+
+    @Query(" select c from Comment c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1")
+    List<Comment> findCommentByItemIds(List<Long> itemIds);
 }
@@ -2,15 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.validation.Create;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,7 +27,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
+    static final String RELEVANCE_SORT = "relevance";
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @GetMapping
     public List<ItemDto> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -35,17 +44,59 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
                                      @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                     @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                                     @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                     @RequestParam(value = "sort", required = false) String sort,
+                                     @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy) {
         if (text.isEmpty()) {
             log.info("Get-запрос: нет текста для поиска ");
             return new ArrayList<>();
         }
-        List<ItemDto> itemDtos = itemService.searchItems(text, from, size);
+        if (sort != null && !sort.equals(RELEVANCE_SORT)) {
+            throw new ValidationException(String.format("Неизвестная сортировка: %s", sort));
+        }
+        List<ItemDto> itemDtos;
+        if (fuzzy) {
+            itemDtos = itemService.searchItemsFuzzy(text, from, size);
+        } else if (sort == null) {
+            itemDtos = itemService.searchItems(text, from, size);
+        } else {
+            itemDtos = itemService.searchItemsByRelevance(text, from, size);
+        }
         log.info("Get -запрос:  Все запросы from = {} size = {}", from, size);
         log.info("Get-запрос: с текстом <{}> найдено: {}", text, itemDtos);
         return itemDtos;
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        List<String> names = itemService.suggestItemNames(prefix, size);
+        log.info("Get-запрос: подсказки для <{}>: {}", prefix, names);
+        return names;
+    }
+
+    @GetMapping("/search/available")
+    public List<ItemDto> searchAvailableItems(@RequestParam String text,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime start,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime end,
+                                              @PositiveOrZero @RequestParam(value = "from", defaultValue = "0")
+                                              Integer from,
+                                              @Positive @RequestParam(value = "size", defaultValue = "10")
+                                              Integer size) {
+        if (text.isEmpty()) {
+            log.info("Get-запрос: нет текста для поиска ");
+            return new ArrayList<>();
+        }
+        List<ItemDto> itemDtos = itemService.searchAvailableItems(text, start, end, from, size);
+        log.info("Get-запрос: с текстом <{}> свободны с {} по {}: {}", text, start, end, itemDtos);
+        return itemDtos;
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
         ItemDto itemDto = itemService.getItemById(userId, itemId);
@@ -61,6 +112,17 @@ public class ItemController {
         return newItemDto;
     }
 
+    @PostMapping(value = "/import", consumes = {ItemImportService.NDJSON, ItemImportService.CSV})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(ItemImportService.CSV));
+        ItemImportResultDto result = itemImportService.importItems(userId, body, csv);
+        log.info("Post-запрос: пользователь {} импортировал {} из {} вещей",
+                userId, result.getImported(), result.getProcessed());
+        return result;
+    }
+
     @PostMapping(value = "{itemId}/comment")
     public CommentDto saveNewComment(@RequestHeader("X-Sharer-User-Id") long bookerId,
                                      @PathVariable("itemId") long itemId,
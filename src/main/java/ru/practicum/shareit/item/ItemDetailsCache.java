@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingLastDto;
+import ru.practicum.shareit.booking.dto.BookingNextDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class ItemDetailsCache {
+    private final Cache<Long, ItemDto> details;
+    private final Cache<Long, OwnerBookings> ownerBookings;
+
+    public ItemDetailsCache(@Value("${shareit.item.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.item.cache.details-ttl:10m}") Duration detailsTtl,
+                            @Value("${shareit.item.cache.bookings-ttl:30s}") Duration bookingsTtl,
+                            MeterRegistry meterRegistry) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(detailsTtl)
+                .recordStats()
+                .build();
+        this.ownerBookings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(bookingsTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "itemDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerBookings, "itemOwnerBookings");
+    }
+
+    public ItemDto getDetails(long itemId, Function<Long, ItemDto> loader) {
+        ItemDto cached = details.get(itemId, id -> {
+            ItemDto itemDto = loader.apply(id);
+            itemDto.setComments(itemDto.getComments() == null ? null : List.copyOf(itemDto.getComments()));
+            return itemDto;
+        });
+        return new ItemDto(cached.getId(), cached.getName(), cached.getDescription(), cached.getAvailable(),
+                cached.getOwner(), cached.getRequestId(), cached.getComments(), null, null);
+    }
+
+    public OwnerBookings getOwnerBookings(long itemId, Function<Long, OwnerBookings> loader) {
+        return ownerBookings.get(itemId, loader);
+    }
+
+    public void evictDetails(long itemId) {
+        afterCommit(() -> details.invalidate(itemId));
+    }
+
+    public void evictOwnerBookings(long itemId) {
+        afterCommit(() -> ownerBookings.invalidate(itemId));
+    }
+
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OwnerBookings {
+        private final BookingLastDto lastBooking;
+        private final BookingNextDto nextBooking;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.validation.KnownIdFilter;
+
+import java.util.List;
+
+@Component
+public class ItemIdFilter extends KnownIdFilter {
+    private final ItemJpaRepository itemRepository;
+
+    public ItemIdFilter(ItemJpaRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.id-filter.rebuild-interval:PT5M}",
+            initialDelayString = "${shareit.id-filter.rebuild-interval:PT5M}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected List<Long> loadIdsAfter(long lastId, int limit) {
+        return itemRepository.findIdsAfter(lastId, PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,314 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestJpaRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemImportService {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final String TOO_LONG = String.format("Строка длиннее %s символов", MAX_LINE_LENGTH);
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "available", "requestId");
+
+    private final ItemJpaRepository itemRepository;
+    private final ItemIdFilter itemIdFilter;
+    private final UserLookup userLookup;
+    private final RequestJpaRepository requestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemImportService(ItemJpaRepository itemRepository, ItemIdFilter itemIdFilter, UserLookup userLookup,
+                             RequestJpaRepository requestRepository, ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper, Validator validator,
+                             PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.itemIdFilter = itemIdFilter;
+        this.userLookup = userLookup;
+        this.requestRepository = requestRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ItemImportResultDto importItems(long userId, InputStream body, boolean csv) {
+        User owner = userLookup.getUser(userId);
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<ItemDto> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            LineReader lines = new LineReader(reader);
+            Map<String, Integer> columns = null;
+            if (csv) {
+                boolean hasHeader = lines.next();
+                if (lines.isTooLong()) {
+                    throw new ValidationException(TOO_LONG);
+                }
+                columns = readCsvHeader(hasHeader ? lines.line() : null);
+            }
+            long lineNumber = csv ? 1 : 0;
+            while (lines.next()) {
+                lineNumber++;
+                String line = lines.line();
+                if (!lines.isTooLong() && line.isBlank()) {
+                    continue;
+                }
+                result.setProcessed(result.getProcessed() + 1);
+                try {
+                    if (lines.isTooLong()) {
+                        throw new ValidationException(TOO_LONG);
+                    }
+                    ItemDto itemDto = csv ? parseCsvLine(line, columns) : parseJsonLine(line);
+                    validate(itemDto);
+                    chunk.add(itemDto);
+                } catch (ValidationException e) {
+                    reportError(result, lineNumber, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE && !saveChunk(owner, chunk, result, lineNumber)) {
+                    return result;
+                }
+            }
+            if (!saveChunk(owner, chunk, result, lineNumber)) {
+                return result;
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать данные для импорта");
+        }
+        log.info("Импорт вещей пользователя с id = {} завершен: обработано {}, сохранено {}, ошибок {}",
+                userId, result.getProcessed(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private boolean saveChunk(User owner, List<ItemDto> chunk, ItemImportResultDto result, long lineNumber) {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        List<Item> newItems;
+        try {
+            newItems = transactionTemplate.execute(status -> {
+                Set<Long> requestIds = chunk.stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, ItemRequest> requests = requestRepository.findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                List<Item> items = chunk.stream()
+                        .map(itemDto -> mapToItem(owner, itemDto, requests))
+                        .collect(Collectors.toList());
+                List<Item> saved = itemRepository.saveAll(items);
+                saved.forEach(item -> eventPublisher.publishEvent(ItemChangedEvent.of(item)));
+                return saved;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            result.setFailed(result.getFailed() + chunk.size());
+            result.setAborted(true);
+            result.setError(String.format("Не удалось сохранить вещи до строки %s, импорт остановлен. "
+                    + "Ранее сохраненные вещи остаются: %s", lineNumber, result.getImported()));
+            log.error("Импорт вещей пользователя с id = {} остановлен на строке {}, сохранено {}",
+                    owner.getId(), lineNumber, result.getImported(), e);
+            return false;
+        }
+        newItems.forEach(item -> itemIdFilter.add(item.getId()));
+        result.setImported(result.getImported() + newItems.size());
+        chunk.clear();
+        log.info("Импорт вещей пользователя с id = {}: обработано {} строк, сохранено {}",
+                owner.getId(), result.getProcessed(), result.getImported());
+        return true;
+    }
+
+    private Item mapToItem(User owner, ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        Item item = new Item();
+        item.setName(itemDto.getName());
+        item.setDescription(itemDto.getDescription());
+        item.setAvailable(itemDto.getAvailable());
+        item.setOwner(owner);
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(requests.get(itemDto.getRequestId()));
+        }
+        return item;
+    }
+
+    private ItemDto parseJsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(String header) {
+        if (header == null) {
+            return Map.of();
+        }
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String column : CSV_COLUMNS.subList(0, 3)) {
+            if (!columns.containsKey(column)) {
+                throw new ValidationException(
+                        String.format("В заголовке CSV нет колонки %s, ожидаются колонки %s", column, CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private ItemDto parseCsvLine(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(csvValue(values, columns, "name"));
+        itemDto.setDescription(csvValue(values, columns, "description"));
+
+        String available = csvValue(values, columns, "available");
+        if (available != null) {
+            if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                throw new ValidationException(String.format("Некорректный статус доступности: %s", available));
+            }
+            itemDto.setAvailable(Boolean.parseBoolean(available));
+        }
+
+        String requestId = csvValue(values, columns, "requestId");
+        if (requestId != null) {
+            try {
+                itemDto.setRequestId(Long.parseLong(requestId));
+            } catch (NumberFormatException e) {
+                throw new ValidationException(String.format("Некорректный id запроса: %s", requestId));
+            }
+        }
+        return itemDto;
+    }
+
+    private String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Незакрытая кавычка в строке CSV");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private void validate(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private void reportError(ItemImportResultDto result, long lineNumber, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportResultDto.LineError(lineNumber, error));
+        }
+    }
+
+    private static class LineReader {
+        private final BufferedReader reader;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = reader.read();
+            if (c == -1) {
+                return false;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() < MAX_LINE_LENGTH) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return true;
+        }
+
+        String line() {
+            return line.toString();
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+    }
+}
@@ -2,14 +2,24 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemText;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemJpaRepository extends JpaRepository<Item, Long> {
+    @Query(" select i from Item i " +
+            "where i.owner.id = ?1")
     List<Item> findItemByOwnerId(long userId, Pageable pageable);
 
+    @Query(" select i from Item i " +
+            "where i.request.id = ?1")
     List<Item> findItemByRequestId(long requestId);
 
     @Query(" select i from Item i " +
@@ -17,7 +27,41 @@ public interface ItemJpaRepository extends JpaRepository<Item, Long> {
     List<Item> findItemByListRequestIds(List<Long> requestIds);
 
     @Query(" select i from Item i " +
-            "where (lower(i.name) like upper(concat('%', ?1, '%')) " +
+            "where (lower(i.name) like lower(concat('%', ?1, '%')) " +
             " or lower(i.description) like lower(concat('%', ?1, '%'))) and i.available = true")
     List<Item> search(String text, Pageable pageable);
+
+    @Query(value = "select * from items i " +
+            "where (lower(i.name) like concat('%', ?1, '%') or lower(i.description) like concat('%', ?1, '%')) " +
+            "and i.available = true order by i.id", nativeQuery = true)
+    List<Item> searchByTrigramIndex(String lowerText, Pageable pageable);
+
+    @Query(value = "select * from items i " +
+            "where (?1 <% lower(i.name) or ?1 <% lower(i.description)) and i.available = true " +
+            "order by greatest(word_similarity(?1, lower(i.name)), word_similarity(?1, lower(i.description))) desc, " +
+            "i.id", nativeQuery = true)
+    List<Item> searchByTrigramSimilarity(String lowerText, Pageable pageable);
+
+    @Query(" select i.id as id, i.name as name, i.description as description from Item i " +
+            "where i.available = true and i.id > ?1 order by i.id")
+    List<ItemText> findAvailableItemTextsAfter(long lastId, Pageable pageable);
+
+    @Query(" select i from Item i " +
+            "where (lower(i.name) like lower(concat('%', ?1, '%')) " +
+            " or lower(i.description) like lower(concat('%', ?1, '%'))) and i.available = true " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item.id = i.id and b.status not in ?2 and b.start < ?4 and b.end > ?3)")
+    List<Item> searchAvailable(String text, List<BookingStatus> releasedStatuses,
+                               LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(" select i.id from Item i where i.id > ?1 order by i.id")
+    List<Long> findIdsAfter(long lastId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select i from Item i where i.id = ?1")
+    Optional<Item> lockItemById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select i from Item i where i.id in ?1 order by i.id")
+    List<Item> lockItemsByIds(List<Long> itemIds);
 }
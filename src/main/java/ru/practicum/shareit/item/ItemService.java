@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -12,6 +13,14 @@ public interface ItemService {
 
     List<ItemDto> searchItems(String text, Integer from, Integer size);
 
+    List<ItemDto> searchItemsByRelevance(String text, Integer from, Integer size);
+
+    List<ItemDto> searchItemsFuzzy(String text, Integer from, Integer size);
+
+    List<String> suggestItemNames(String prefix, Integer size);
+
+    List<ItemDto> searchAvailableItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
     ItemDto saveNewItem(long userId, ItemDto itemDto);
 
     CommentDto saveNewComment(long userId, long itemId, CommentDto commentDto);
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -10,37 +12,54 @@ import ru.practicum.shareit.booking.BookingJpaRepository;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingLastDto;
 import ru.practicum.shareit.booking.dto.BookingNextDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestJpaRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.booking.BookingStatus.CANCELED;
 import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final String PLAIN_SEARCH = "plain";
+    private static final String RELEVANCE_SEARCH = "relevance";
     private final ItemJpaRepository itemRepository;
-    private final UserJpaRepository userRepository;
+    private final ItemIdFilter itemIdFilter;
+    private final UserLookup userLookup;
     private final RequestJpaRepository requestRepository;
     private final CommentJpaRepository commentRepository;
     private final BookingJpaRepository bookingRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailsCache detailsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ItemDto> getItemsByUserId(long userId, Integer from, Integer size) {
-        checkingExistUser(userId);
+        userLookup.checkExists(userId);
         Sort idSort = Sort.by("id");
         Pageable pageable = FromSizeRequest.of(from, size, idSort);
         List<Item> userItems = itemRepository.findItemByOwnerId(userId, pageable);
@@ -49,13 +68,17 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto getItemById(long userId, long itemId) {
-        Item item = checkingExistItem(itemId);
-        List<Comment> comments = commentRepository.findCommentByItem_Id(itemId);
-        ItemDto itemDto = ItemMapper.mapToItemDto(item, comments);
-
-        if (item.getOwner().getId() == userId) {
-            itemDto.setLastBooking(getLastBookingByItemId(itemId));
-            itemDto.setNextBooking(getNextBookingByItemId(itemId));
+        ItemDto itemDto = detailsCache.getDetails(itemId, id -> {
+            Item item = checkingExistItem(id);
+            List<Comment> comments = commentRepository.findCommentByItem_Id(id);
+            return ItemMapper.mapToItemDto(item, comments);
+        });
+
+        if (itemDto.getOwner() == userId) {
+            ItemDetailsCache.OwnerBookings ownerBookings = detailsCache.getOwnerBookings(itemId,
+                    id -> new ItemDetailsCache.OwnerBookings(getLastBookingByItemId(id), getNextBookingByItemId(id)));
+            itemDto.setLastBooking(ownerBookings.getLastBooking());
+            itemDto.setNextBooking(ownerBookings.getNextBooking());
         }
         return itemDto;
     }
@@ -63,16 +86,52 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<ItemDto> searchItems(String text, Integer from, Integer size) {
         String lowerText = text.toLowerCase();
+        return searchCache.get(PLAIN_SEARCH, lowerText, from, size, () -> {
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.unsorted());
+            return ItemMapper.mapToListItemDto(searchEngine.search(lowerText, pageable));
+        });
+    }
+
+    @Override
+    public List<ItemDto> searchItemsByRelevance(String text, Integer from, Integer size) {
+        String lowerText = text.toLowerCase();
+        return searchCache.get(RELEVANCE_SEARCH, lowerText, from, size, () -> {
+            Pageable pageable = FromSizeRequest.of(from, size, Sort.unsorted());
+            return ItemMapper.mapToListItemDto(searchEngine.searchByRelevance(lowerText, pageable));
+        });
+    }
+
+    @Override
+    public List<ItemDto> searchItemsFuzzy(String text, Integer from, Integer size) {
         Pageable pageable = FromSizeRequest.of(from, size, Sort.unsorted());
-        List<Item> searchItems = itemRepository.search(lowerText, pageable);
+        List<Item> searchItems = searchEngine.searchFuzzy(text.toLowerCase(), pageable);
+        return ItemMapper.mapToListItemDto(searchItems);
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    @Override
+    public List<ItemDto> searchAvailableItems(String text, LocalDateTime start, LocalDateTime end,
+                                              Integer from, Integer size) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Дата начала периода должна быть меньше даты окончания");
+        }
+        Pageable pageable = FromSizeRequest.of(from, size, Sort.by("id"));
+        List<Item> searchItems = itemRepository.searchAvailable(text.toLowerCase(),
+                List.of(REJECTED, CANCELED), start, end, pageable);
         return ItemMapper.mapToListItemDto(searchItems);
     }
 
     @Transactional
     @Override
     public ItemDto saveNewItem(long userId, ItemDto itemDto) {
-        User user = checkingExistUser(userId);
+        User user = userLookup.getUser(userId);
         Item newItem = itemRepository.save(mapToItem(user, itemDto));
+        itemIdFilter.add(newItem.getId());
+        eventPublisher.publishEvent(ItemChangedEvent.of(newItem));
         return ItemMapper.mapToItemDto(newItem);
     }
 
@@ -81,6 +140,8 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
         Item updateItem = checkingExistItem(itemId);
         if (updateItem.getOwner().getId() == userId) {
+            String previousName = updateItem.getName();
+            String previousDescription = updateItem.getDescription();
 
             if (itemDto.getName() != null) {
                 updateItem.setName(itemDto.getName());
@@ -100,6 +161,8 @@ public class ItemServiceImpl implements ItemService {
             }
 
             itemRepository.save(updateItem);
+            eventPublisher.publishEvent(ItemChangedEvent.of(updateItem, previousName, previousDescription));
+            detailsCache.evictDetails(itemId);
             return ItemMapper.mapToItemDto(updateItem);
         } else {
             throw new NotFoundException(String.format("Пользователь с id=%s не владелец вещи с id=%s",
@@ -110,7 +173,7 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     @Override
     public CommentDto saveNewComment(long bookerId, long itemId, CommentDto commentDto) {
-        User author = checkingExistUser(bookerId);
+        User author = userLookup.getUser(bookerId);
         Item item = checkingExistItem(itemId);
 
         LocalDateTime nowDate = LocalDateTime.now();
@@ -119,6 +182,7 @@ public class ItemServiceImpl implements ItemService {
         if (bookings.size() > 0) {
             commentDto.setCreated(nowDate);
             Comment newComment = commentRepository.save(ItemMapper.mapToComment(author, item, commentDto));
+            detailsCache.evictDetails(itemId);
             return ItemMapper.mapToCommentDto(newComment);
         } else {
             throw new ValidationException(
@@ -127,23 +191,35 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private User checkingExistUser(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id=%s не найден", userId)));
-    }
-
     private Item checkingExistItem(long itemId) {
+        if (itemIdFilter.isAbsent(itemId)) {
+            throw new NotFoundException(String.format("Вещь с id=%s не найдена", itemId));
+        }
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с id=%s не найдена", itemId)));
     }
 
     private List<ItemDto> mapToListItemDto(List<Item> items) {
         List<ItemDto> itemDtos = new ArrayList<>();
+        if (items.isEmpty()) {
+            return itemDtos;
+        }
+
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime nowDate = LocalDateTime.now();
+        Map<Long, List<Comment>> comments = commentRepository.findCommentByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+        Map<Long, BookingShort> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, nowDate).stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+        Map<Long, BookingShort> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, nowDate).stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+
         for (Item item : items) {
-            List<Comment> comments = commentRepository.findCommentByItem_Id(item.getId());
-            ItemDto itemDto = ItemMapper.mapToItemDto(item, comments);
-            itemDto.setLastBooking(getLastBookingByItemId(item.getId()));
-            itemDto.setNextBooking(getNextBookingByItemId(item.getId()));
+            ItemDto itemDto = ItemMapper.mapToItemDto(item, comments.getOrDefault(item.getId(), List.of()));
+            BookingShort lastBooking = lastBookings.get(item.getId());
+            BookingShort nextBooking = nextBookings.get(item.getId());
+            itemDto.setLastBooking(lastBooking == null ? null : BookingMapper.mapToBookingLastDto(lastBooking));
+            itemDto.setNextBooking(nextBooking == null ? null : BookingMapper.mapToBookingNextDto(nextBooking));
             itemDtos.add(itemDto);
         }
         return itemDtos;
@@ -163,18 +239,16 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private BookingLastDto getLastBookingByItemId(long itemId) {
-        Sort startSort = Sort.by("start").descending();
         LocalDateTime nowDate = LocalDateTime.now();
-        List<Booking> lastBookings = bookingRepository.findBookingByItemIdAndStartIsBefore(
-                itemId, nowDate, startSort);
+        List<BookingShort> lastBookings = bookingRepository.findLastBookingByItemId(
+                itemId, nowDate, PageRequest.of(0, 1));
         return lastBookings.size() == 0 ? null : BookingMapper.mapToBookingLastDto(lastBookings.get(0));
     }
 
     private BookingNextDto getNextBookingByItemId(long itemId) {
-        Sort startSort = Sort.by("start");
         LocalDateTime nowDate = LocalDateTime.now();
-        List<Booking> nextBookings = bookingRepository.findBookingByItemIdAndStartIsAfterAndStatusIsNot(
-                itemId, nowDate, REJECTED, startSort);
+        List<BookingShort> nextBookings = bookingRepository.findNextBookingByItemId(
+                itemId, nowDate, REJECTED, PageRequest.of(0, 1));
         return nextBookings.size() == 0 ? null : BookingMapper.mapToBookingNextDto(nextBookings.get(0));
     }
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportResultDto {
+    private long processed;
+    private long imported;
+    private long failed;
+    private boolean aborted;
+    private String error;
+    private List<LineError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LineError {
+        private long line;
+        private String error;
+    }
+}
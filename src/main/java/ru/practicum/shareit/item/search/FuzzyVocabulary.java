@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+class FuzzyVocabulary {
+    static final double MIN_SIMILARITY = 0.3;
+
+    private final Map<String, Word> words = new HashMap<>();
+    private final Map<String, Set<Word>> wordsByTrigram = new HashMap<>();
+
+    void add(int doc, Set<String> tokens) {
+        for (String token : tokens) {
+            Word word = words.get(token);
+            if (word == null) {
+                Set<String> trigrams = trigrams(token);
+                word = new Word(token, trigrams.size());
+                words.put(token, word);
+                for (String trigram : trigrams) {
+                    wordsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(word);
+                }
+            }
+            word.docs.add(doc);
+        }
+    }
+
+    void remove(int doc, Set<String> tokens) {
+        for (String token : tokens) {
+            Word word = words.get(token);
+            word.docs.remove(doc);
+            if (word.docs.size() > 0) {
+                continue;
+            }
+            words.remove(token);
+            for (String trigram : trigrams(token)) {
+                Set<Word> sameTrigram = wordsByTrigram.get(trigram);
+                sameTrigram.remove(word);
+                if (sameTrigram.isEmpty()) {
+                    wordsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    Map<Integer, Integer> match(String queryToken) {
+        Set<String> queryTrigrams = trigrams(queryToken);
+        Map<Word, Integer> overlaps = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (Word word : wordsByTrigram.getOrDefault(trigram, Set.of())) {
+                overlaps.merge(word, 1, Integer::sum);
+            }
+        }
+
+        int maxEdits = maxEdits(queryToken.length());
+        Map<Integer, Integer> distances = new HashMap<>();
+        for (Map.Entry<Word, Integer> candidate : overlaps.entrySet()) {
+            Word word = candidate.getKey();
+            int overlap = candidate.getValue();
+            double similarity = (double) overlap / (queryTrigrams.size() + word.trigramCount - overlap);
+            if (similarity < MIN_SIMILARITY || Math.abs(word.token.length() - queryToken.length()) > maxEdits) {
+                continue;
+            }
+            int distance = distance(queryToken, word.token, maxEdits);
+            if (distance > maxEdits) {
+                continue;
+            }
+            for (int i = 0; i < word.docs.size(); i++) {
+                distances.merge(word.docs.get(i), distance, Math::min);
+            }
+        }
+        return distances;
+    }
+
+    static Set<String> tokens(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (letter && start < 0) {
+                    start = i;
+                } else if (!letter && start >= 0) {
+                    tokens.add(text.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    static int distance(String first, String second, int limit) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "  " + token + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static class Word {
+        private final String token;
+        private final int trigramCount;
+        private final IntPostings docs = new IntPostings();
+
+        Word(String token, int trigramCount) {
+            this.token = token;
+            this.trigramCount = trigramCount;
+        }
+    }
+}
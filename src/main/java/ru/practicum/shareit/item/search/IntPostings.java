@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class IntPostings {
+    private int[] docs = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] >= doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                return;
+            }
+            insertAt(-index - 1, doc);
+            return;
+        }
+        insertAt(size, doc);
+    }
+
+    void remove(int doc) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+        }
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+
+    private void insertAt(int index, int doc) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+        }
+        System.arraycopy(docs, index, docs, index + 1, size - index);
+        docs[index] = doc;
+        size++;
+    }
+}
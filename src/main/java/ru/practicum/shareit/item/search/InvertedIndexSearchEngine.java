@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.dto.ItemText;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InvertedIndexSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_CHUNK = 1000;
+
+    private final ItemJpaRepository itemRepository;
+    private final NgramIndex index = new NgramIndex();
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (!ready) {
+            return itemRepository.search(text, pageable);
+        }
+        return findAllInOrder(index.search(text, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public List<Item> searchByRelevance(String text, Pageable pageable) {
+        if (!ready) {
+            return ItemSearchEngine.super.searchByRelevance(text, pageable);
+        }
+        return findAllInOrder(index.searchRanked(text, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public List<Item> searchFuzzy(String text, Pageable pageable) {
+        if (!ready) {
+            return itemRepository.search(text, pageable);
+        }
+        return findAllInOrder(index.searchFuzzy(text, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    private List<Item> findAllInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+        }
+        return itemRepository.findAllById(positions.keySet()).stream()
+                .sorted(Comparator.comparing(item -> positions.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+        }
+        long lastId = 0;
+        List<ItemText> chunk;
+        do {
+            chunk = itemRepository.findAvailableItemTextsAfter(lastId, PageRequest.of(0, LOAD_CHUNK));
+            synchronized (changedDuringRebuild) {
+                for (ItemText item : chunk) {
+                    if (!changedDuringRebuild.contains(item.getId())) {
+                        index.put(item.getId(), item.getName(), item.getDescription());
+                    }
+                    lastId = item.getId();
+                }
+            }
+        } while (chunk.size() == LOAD_CHUNK);
+        synchronized (changedDuringRebuild) {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+        ready = true;
+        log.info("Поисковый индекс вещей построен, проиндексировано {} вещей", index.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.getItemId());
+            }
+            if (event.isAvailable()) {
+                index.put(event.getItemId(), event.getName(), event.getDescription());
+            } else {
+                index.remove(event.getItemId());
+            }
+        }
+    }
+}
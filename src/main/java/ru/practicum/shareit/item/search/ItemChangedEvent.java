@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ItemChangedEvent {
+    private final long itemId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final String previousName;
+    private final String previousDescription;
+
+    public ItemChangedEvent(long itemId, String name, String description, boolean available) {
+        this(itemId, name, description, available, null, null);
+    }
+
+    public static ItemChangedEvent of(Item item) {
+        return of(item, null, null);
+    }
+
+    public static ItemChangedEvent of(Item item, String previousName, String previousDescription) {
+        return new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), previousName, previousDescription);
+    }
+}
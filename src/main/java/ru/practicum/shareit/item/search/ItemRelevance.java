@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class ItemRelevance {
+    static final int NAME_WEIGHT = 100;
+    static final int DESCRIPTION_WEIGHT = 3;
+    private static final int MAX_COUNTED_HITS = 5;
+
+    private ItemRelevance() {
+    }
+
+    static int score(String query, String name, String description) {
+        return fieldScore(query, name, NAME_WEIGHT) + fieldScore(query, description, DESCRIPTION_WEIGHT);
+    }
+
+    static List<Item> rank(List<Item> items, String text, Pageable pageable) {
+        if (pageable.getOffset() >= items.size()) {
+            return List.of();
+        }
+        String query = text.toLowerCase();
+        TopK topK = new TopK(TopK.capacity(pageable.getOffset(), pageable.getPageSize(), items.size()));
+        for (Item item : items) {
+            topK.offer(item.getId(), score(query, lower(item.getName()), lower(item.getDescription())));
+        }
+        Map<Long, Item> byId = items.stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> ranked = new ArrayList<>();
+        for (long id : topK.best(pageable.getOffset())) {
+            ranked.add(byId.get(id));
+        }
+        return ranked;
+    }
+
+    private static int fieldScore(String query, String text, int weight) {
+        if (text.isEmpty()) {
+            return 0;
+        }
+        if (text.equals(query)) {
+            return weight * (2 + 3 * MAX_COUNTED_HITS);
+        }
+        int hits = 0;
+        int wordHits = 0;
+        for (int index = text.indexOf(query); index >= 0 && hits < MAX_COUNTED_HITS;
+             index = text.indexOf(query, index + 1)) {
+            hits++;
+            if (isBoundary(text, index - 1) && isBoundary(text, index + query.length())) {
+                wordHits++;
+            }
+        }
+        return hits == 0 ? 0 : weight * (1 + hits + 2 * wordHits);
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+    private static final int MAX_GRAM = NgramIndex.MAX_GRAM;
+
+    private final Cache<Key, Entry> cache;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.search.cache.ttl:1m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public List<ItemDto> get(String mode, String text, int from, int size, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(mode, text, from, size);
+        Entry entry = cache.asMap().get(key);
+        if (entry != null && !isFresh(entry)) {
+            cache.asMap().remove(key, entry);
+        }
+        return cache.get(key, k -> load(text, loader)).getItems();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Set<String> grams = new HashSet<>();
+        addGrams(grams, event.getName());
+        addGrams(grams, event.getDescription());
+        addGrams(grams, event.getPreviousName());
+        addGrams(grams, event.getPreviousDescription());
+        for (String gram : grams) {
+            generations.merge(gram, 1L, Long::sum);
+        }
+    }
+
+    private Entry load(String text, Supplier<List<ItemDto>> loader) {
+        String[] grams = queryGrams(text);
+        long[] snapshot = snapshot(grams);
+        return new Entry(List.copyOf(loader.get()), grams, snapshot);
+    }
+
+    private boolean isFresh(Entry entry) {
+        String[] grams = entry.getGrams();
+        long[] snapshot = entry.getGenerations();
+        for (int i = 0; i < grams.length; i++) {
+            if (generations.getOrDefault(grams[i], 0L) == snapshot[i]) {
+                return true;
+            }
+        }
+        return grams.length == 0;
+    }
+
+    private long[] snapshot(String[] grams) {
+        long[] snapshot = new long[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            snapshot[i] = generations.getOrDefault(grams[i], 0L);
+        }
+        return snapshot;
+    }
+
+    private static String[] queryGrams(String text) {
+        if (text.length() <= MAX_GRAM) {
+            return text.isEmpty() ? new String[0] : new String[]{text};
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + MAX_GRAM));
+        }
+        return grams.toArray(new String[0]);
+    }
+
+    private static void addGrams(Set<String> grams, String text) {
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase();
+        for (int i = 0; i < lower.length(); i++) {
+            for (int length = 1; length <= MAX_GRAM && i + length <= lower.length(); length++) {
+                grams.add(lower.substring(i, i + length));
+            }
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+        private final String mode;
+        private final String text;
+        private final int from;
+        private final int size;
+
+        Key(String mode, String text, int from, int size) {
+            this.mode = mode;
+            this.text = text;
+            this.from = from;
+            this.size = size;
+        }
+    }
+
+    @Getter
+    private static class Entry {
+        private final List<ItemDto> items;
+        private final String[] grams;
+        private final long[] generations;
+
+        Entry(List<ItemDto> items, String[] grams, long[] generations) {
+            this.items = items;
+            this.grams = grams;
+            this.generations = generations;
+        }
+    }
+}
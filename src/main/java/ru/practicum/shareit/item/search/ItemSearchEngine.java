@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    int MAX_RANKED_CANDIDATES = 1000;
+
+    List<Item> search(String text, Pageable pageable);
+
+    default List<Item> searchByRelevance(String text, Pageable pageable) {
+        List<Item> candidates = search(text, PageRequest.of(0, MAX_RANKED_CANDIDATES));
+        return ItemRelevance.rank(candidates, text, pageable);
+    }
+
+    default List<Item> searchFuzzy(String text, Pageable pageable) {
+        throw new ValidationException("Нечеткий поиск не поддерживается текущим движком поиска");
+    }
+}
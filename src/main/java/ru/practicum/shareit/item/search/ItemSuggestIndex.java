@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.dto.ItemText;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+    private static final int LOAD_CHUNK = 1000;
+    private static final char ID_SEPARATOR = '\u0000';
+    private static final char MAX_CHAR = '\uffff';
+
+    private final ItemJpaRepository itemRepository;
+    private final NavigableMap<String, String> names = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysByItemId = new ConcurrentHashMap<>();
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = prefix.toLowerCase();
+        Set<String> result = new LinkedHashSet<>();
+        for (String name : names.subMap(normalized, true, normalized + MAX_CHAR, false).values()) {
+            result.add(name);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+        }
+        long lastId = 0;
+        List<ItemText> chunk;
+        do {
+            chunk = itemRepository.findAvailableItemTextsAfter(lastId, PageRequest.of(0, LOAD_CHUNK));
+            synchronized (changedDuringRebuild) {
+                for (ItemText item : chunk) {
+                    if (!changedDuringRebuild.contains(item.getId())) {
+                        put(item.getId(), item.getName());
+                    }
+                    lastId = item.getId();
+                }
+            }
+        } while (chunk.size() == LOAD_CHUNK);
+        synchronized (changedDuringRebuild) {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+        log.info("Индекс подсказок построен, проиндексировано {} вещей", keysByItemId.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.getItemId());
+            }
+            if (event.isAvailable()) {
+                put(event.getItemId(), event.getName());
+            } else {
+                remove(event.getItemId());
+            }
+        }
+    }
+
+    void put(long itemId, String name) {
+        keysByItemId.compute(itemId, (id, oldKeys) -> {
+            if (oldKeys != null) {
+                oldKeys.forEach(names::remove);
+            }
+            List<String> keys = keys(id, name);
+            keys.forEach(key -> names.put(key, name));
+            return keys;
+        });
+    }
+
+    void remove(long itemId) {
+        keysByItemId.computeIfPresent(itemId, (id, oldKeys) -> {
+            oldKeys.forEach(names::remove);
+            return null;
+        });
+    }
+
+    private static List<String> keys(long itemId, String name) {
+        String normalized = name == null ? "" : name.toLowerCase();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1));
+            if (wordStart && Character.isLetterOrDigit(normalized.charAt(i))) {
+                keys.add(normalized.substring(i) + ID_SEPARATOR + itemId);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,247 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class NgramIndex {
+    static final int MAX_GRAM = 3;
+
+    private final Map<String, IntPostings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByItemId = new HashMap<>();
+    private final FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] itemIds = new long[16];
+    private String[] names = new String[16];
+    private String[] descriptions = new String[16];
+    private int docCount;
+
+    void put(long itemId, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(itemId);
+            int doc = newDoc(itemId, normalize(name), normalize(description));
+            for (String gram : grams(names[doc], descriptions[doc])) {
+                postings.computeIfAbsent(gram, g -> new IntPostings()).add(doc);
+            }
+            vocabulary.add(doc, FuzzyVocabulary.tokens(names[doc], descriptions[doc]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int slots() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long[] search(String text, long offset, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<IntPostings> lists = postingsFor(query);
+            if (lists.isEmpty()) {
+                return new long[0];
+            }
+            IntPostings smallest = lists.get(0);
+            if (offset >= smallest.size()) {
+                return new long[0];
+            }
+            long[] result = new long[Math.min(limit, smallest.size())];
+            int found = 0;
+            long skipped = 0;
+            for (int i = 0; i < smallest.size() && found < result.length; i++) {
+                int doc = smallest.get(i);
+                if (!matches(lists, doc, query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result[found++] = itemIds[doc];
+            }
+            return Arrays.copyOf(result, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long[] searchRanked(String text, long offset, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<IntPostings> lists = postingsFor(query);
+            if (lists.isEmpty()) {
+                return new long[0];
+            }
+            IntPostings smallest = lists.get(0);
+            if (offset >= smallest.size()) {
+                return new long[0];
+            }
+            TopK topK = new TopK(TopK.capacity(offset, limit, smallest.size()));
+            for (int i = 0; i < smallest.size(); i++) {
+                int doc = smallest.get(i);
+                if (matches(lists, doc, query)) {
+                    topK.offer(itemIds[doc], ItemRelevance.score(query, names[doc], descriptions[doc]));
+                }
+            }
+            return topK.best(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long[] searchFuzzy(String text, long offset, int limit) {
+        Set<String> queryTokens = FuzzyVocabulary.tokens(normalize(text));
+        if (queryTokens.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> distances = null;
+            for (String token : queryTokens) {
+                Map<Integer, Integer> matches = vocabulary.match(token);
+                if (distances == null) {
+                    distances = matches;
+                } else {
+                    distances.keySet().retainAll(matches.keySet());
+                    distances.replaceAll((doc, distance) -> distance + matches.get(doc));
+                }
+                if (distances.isEmpty()) {
+                    return new long[0];
+                }
+            }
+            if (offset >= distances.size()) {
+                return new long[0];
+            }
+            TopK topK = new TopK(TopK.capacity(offset, limit, distances.size()));
+            distances.forEach((doc, distance) -> topK.offer(itemIds[doc], -distance));
+            return topK.best(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<IntPostings> postingsFor(String query) {
+        List<IntPostings> lists = new ArrayList<>();
+        for (String gram : queryGrams(query)) {
+            IntPostings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntPostings::size));
+        return lists;
+    }
+
+    private boolean matches(List<IntPostings> lists, int doc, String query) {
+        if (!containsAll(lists, doc)) {
+            return false;
+        }
+        return query.length() <= MAX_GRAM || names[doc].contains(query) || descriptions[doc].contains(query);
+    }
+
+    private boolean containsAll(List<IntPostings> lists, int doc) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int newDoc(long itemId, String name, String description) {
+        Integer free = freeDocs.poll();
+        if (free == null && docCount == itemIds.length) {
+            int capacity = docCount * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        int doc = free == null ? docCount++ : free;
+        itemIds[doc] = itemId;
+        names[doc] = name;
+        descriptions[doc] = description;
+        docByItemId.put(itemId, doc);
+        return doc;
+    }
+
+    private void removeDoc(long itemId) {
+        Integer doc = docByItemId.remove(itemId);
+        if (doc == null) {
+            return;
+        }
+        for (String gram : grams(names[doc], descriptions[doc])) {
+            IntPostings list = postings.get(gram);
+            list.remove(doc);
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+        vocabulary.remove(doc, FuzzyVocabulary.tokens(names[doc], descriptions[doc]));
+        names[doc] = null;
+        descriptions[doc] = null;
+        freeDocs.push(doc);
+    }
+
+    private static Set<String> grams(String name, String description) {
+        Set<String> grams = new HashSet<>();
+        addGrams(grams, name);
+        addGrams(grams, description);
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int length = 1; length <= MAX_GRAM && i + length <= text.length(); length++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+    }
+
+    private static Set<String> queryGrams(String query) {
+        if (query.length() <= MAX_GRAM) {
+            return Set.of(query);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            grams.add(query.substring(i, i + MAX_GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+}
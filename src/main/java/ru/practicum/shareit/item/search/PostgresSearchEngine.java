@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresSearchEngine implements ItemSearchEngine {
+    static final String INDEX_SCRIPT = "db/search-postgres.sql";
+
+    private final ItemJpaRepository itemRepository;
+    private final DataSource dataSource;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.searchByTrigramIndex(text.toLowerCase(), pageable);
+    }
+
+    @Override
+    public List<Item> searchFuzzy(String text, Pageable pageable) {
+        return itemRepository.searchByTrigramSimilarity(text.toLowerCase(), pageable);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        new ResourceDatabasePopulator(new ClassPathResource(INDEX_SCRIPT)).execute(dataSource);
+        log.info("Триграммные индексы для поиска вещей созданы");
+    }
+}
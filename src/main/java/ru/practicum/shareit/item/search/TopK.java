@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+class TopK {
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::getScore)
+            .thenComparing(Comparator.comparingLong(Hit::getId).reversed());
+
+    private final int capacity;
+    private final PriorityQueue<Hit> heap;
+
+    TopK(int capacity) {
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(WORST_FIRST);
+    }
+
+    static int capacity(long offset, int limit, int candidates) {
+        return (int) Math.min(candidates, Math.max(0, offset) + Math.max(0, limit));
+    }
+
+    void offer(long id, int score) {
+        if (capacity == 0) {
+            return;
+        }
+        Hit hit = new Hit(id, score);
+        if (heap.size() < capacity) {
+            heap.add(hit);
+        } else if (WORST_FIRST.compare(hit, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(hit);
+        }
+    }
+
+    long[] best(long offset) {
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(WORST_FIRST.reversed());
+        int from = (int) Math.min(offset, hits.size());
+        long[] ids = new long[hits.size() - from];
+        for (int i = from; i < hits.size(); i++) {
+            ids[i - from] = hits.get(i).getId();
+        }
+        return ids;
+    }
+
+    private static class Hit {
+        private final long id;
+        private final int score;
+
+        Hit(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        int getScore() {
+            return score;
+        }
+    }
+}
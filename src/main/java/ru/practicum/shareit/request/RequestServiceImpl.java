@@ -13,7 +13,7 @@ import ru.practicum.shareit.request.dto.RequestInDto;
 import ru.practicum.shareit.request.dto.RequestOutDto;
 import ru.practicum.shareit.request.dto.RequestSaveDto;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
 import java.time.LocalDateTime;
@@ -26,7 +26,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
     private final RequestJpaRepository requestRepository;
-    private final UserJpaRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemJpaRepository itemRepository;
 
     @Override
@@ -39,7 +39,7 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public List<RequestOutDto> getItemRequestByRequestorId(long requestorId) {
-        checkingExistUser(requestorId);
+        userLookup.checkExists(requestorId);
         Sort createdSort = Sort.by("created").descending();
         List<ItemRequest> requests = requestRepository.findItemRequestByRequestorId(requestorId, createdSort);
         return mapToListRequestWithResponseDto(requests);
@@ -47,7 +47,7 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public RequestOutDto getItemRequestById(long userId, long requestId) {
-        checkingExistUser(userId);
+        userLookup.checkExists(userId);
         ItemRequest request = checkingExistRequest(requestId);
         List<Item> items = itemRepository.findItemByRequestId(requestId);
         RequestOutDto requestDto = RequestMapper.mapToRequestOutDto(request,
@@ -58,7 +58,7 @@ public class RequestServiceImpl implements RequestService {
     @Transactional
     @Override
     public RequestSaveDto saveNewRequest(long userId, RequestInDto requestInDto) {
-        User user = checkingExistUser(userId);
+        User user = userLookup.getUser(userId);
         ItemRequest request = RequestMapper.mapToItemRequest(requestInDto);
         request.setCreated(LocalDateTime.now());
         request.setRequestor(user);
@@ -66,11 +66,6 @@ public class RequestServiceImpl implements RequestService {
         return RequestMapper.mapToRequestSaveDto(newRequest);
     }
 
-    private User checkingExistUser(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id=%s не найден", userId)));
-    }
-
     private ItemRequest checkingExistRequest(long requestId) {
         return requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запрос с id=%s не найден", requestId)));
@@ -1,6 +1,12 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface UserJpaRepository extends JpaRepository<User, Long> {
+    @Query(" select u.id from User u where u.id > ?1 order by u.id")
+    List<Long> findIdsAfter(long lastId, Pageable pageable);
 }
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class UserLookup {
+    private static final long EMPTY = 0;
+
+    private final UserJpaRepository userRepository;
+    private final UserIdFilter userIdFilter;
+    private final AtomicLongArray knownIds;
+    private final int mask;
+
+    public UserLookup(UserJpaRepository userRepository, UserIdFilter userIdFilter,
+                      @Value("${shareit.user.cache.capacity:65536}") int capacity) {
+        this.userRepository = userRepository;
+        this.userIdFilter = userIdFilter;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.knownIds = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    public void checkExists(long userId) {
+        if (knownIds.get(slot(userId)) != userId + 1) {
+            getUser(userId);
+        }
+    }
+
+    public User getUser(long userId) {
+        if (userIdFilter.isAbsent(userId)) {
+            throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id=%s не найден", userId)));
+        knownIds.set(slot(userId), userId + 1);
+        return user;
+    }
+
+    public void evict(long userId) {
+        forget(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                forget(userId);
+            }
+        });
+    }
+
+    private void forget(long userId) {
+        knownIds.compareAndSet(slot(userId), userId + 1, EMPTY);
+    }
+
+    private int slot(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
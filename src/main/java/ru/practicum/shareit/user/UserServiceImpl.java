@@ -12,6 +12,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserJpaRepository userRepository;
+    private final UserLookup userLookup;
+    private final UserIdFilter userIdFilter;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -30,7 +32,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto saveNewUser(UserDto userDto) {
         User newUser = userRepository.save(UserMapper.mapToUser(userDto));
-        return newUser == null ? null : UserMapper.mapToUserDto(newUser);
+        if (newUser == null) {
+            return null;
+        }
+        userIdFilter.add(newUser.getId());
+        return UserMapper.mapToUserDto(newUser);
     }
 
     @Transactional
@@ -58,5 +64,6 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException(String.format("Пользователь с id=%s не найден", userId));
         }
         userRepository.deleteById(userId);
+        userLookup.evict(userId);
     }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.List;
+
+@Slf4j
+public abstract class KnownIdFilter {
+    private static final int LOAD_CHUNK = 10000;
+
+    private BitSet ids = new BitSet();
+    private long watermark = -1;
+    private BitSet addedDuringRebuild;
+
+    protected abstract List<Long> loadIdsAfter(long lastId, int limit);
+
+    public synchronized boolean isAbsent(long id) {
+        return id <= watermark && (id < 0 || id > Integer.MAX_VALUE || !ids.get((int) id));
+    }
+
+    public void add(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            set((int) id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                set((int) id);
+            }
+        });
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            addedDuringRebuild = new BitSet();
+        }
+        BitSet loaded = new BitSet();
+        long lastId = 0;
+        boolean hasMore = true;
+        while (hasMore) {
+            List<Long> chunk = loadIdsAfter(lastId, LOAD_CHUNK);
+            hasMore = chunk.size() == LOAD_CHUNK;
+            for (Long id : chunk) {
+                if (id > Integer.MAX_VALUE) {
+                    hasMore = false;
+                    break;
+                }
+                loaded.set(id.intValue());
+                lastId = id;
+            }
+        }
+        synchronized (this) {
+            loaded.or(addedDuringRebuild);
+            addedDuringRebuild = null;
+            ids = loaded;
+            watermark = lastId;
+        }
+        log.info("{}: загружено {} идентификаторов, максимальный id = {}",
+                getClass().getSimpleName(), loaded.cardinality(), lastId);
+    }
+
+    private synchronized void set(int id) {
+        ids.set(id);
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.set(id);
+        }
+    }
+}
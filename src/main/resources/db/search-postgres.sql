@@ -0,0 +1,5 @@
+-- Runs only with shareit.search.engine=postgres.
+-- Requires the pg_trgm extension to be provisioned beforehand by a privileged user:
+--   CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS IDX_ITEM_NAME_TRGM ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_DESCRIPTION_TRGM ON items USING gin (lower(description) gin_trgm_ops);
@@ -3,34 +3,45 @@ DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    name  VARCHAR(255)                            NOT NULL,
-    email VARCHAR(512)                            NOT NULL,
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    description  VARCHAR(2000)                           NOT NULL,
+    id           BIGINT        NOT NULL,
+    description  VARCHAR(2000) NOT NULL,
     created      TIMESTAMP,
-    requestor_id BIGINT                                  NOT NULL,
+    requestor_id BIGINT        NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT FK_REQUEST_USER FOREIGN KEY (requestor_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    name        VARCHAR(255)                            NOT NULL,
-    description VARCHAR(2000)                           NOT NULL,
+    id          BIGINT        NOT NULL,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(2000) NOT NULL,
     available   BOOLEAN,
-    owner_id    BIGINT                                  NOT NULL,
+    owner_id    BIGINT        NOT NULL,
     request_id  BIGINT,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT FK_ITEM_USER FOREIGN KEY (owner_id) REFERENCES users (id),
@@ -39,7 +50,7 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT NOT NULL,
     start_date TIMESTAMP,
     end_date   TIMESTAMP,
     item_id    BIGINT,
@@ -52,7 +63,7 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT NOT NULL,
     text      VARCHAR(5000),
     item_id   BIGINT,
     author_id BIGINT,
@@ -61,3 +72,14 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT FK_COMMENT_ITEM FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT FK_COMMENT_USER FOREIGN KEY (author_id) REFERENCES users (id)
 );
+
+CREATE INDEX IF NOT EXISTS IDX_ITEM_OWNER ON items (owner_id);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_REQUEST ON items (request_id);
+CREATE INDEX IF NOT EXISTS IDX_REQUEST_REQUESTOR_CREATED ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS IDX_COMMENT_ITEM ON comments (item_id);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_BOOKER_START ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_BOOKER_END ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_BOOKER_STATUS ON bookings (booker_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_ITEM_END ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_ITEM_STATUS ON bookings (item_id, status, start_date);
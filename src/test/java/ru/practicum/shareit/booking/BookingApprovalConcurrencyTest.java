@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+public class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private final BookingService bookingService;
+    private final BookingJpaRepository bookingRepository;
+    private final ItemJpaRepository itemRepository;
+    private final UserJpaRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(new User(null, "owner", "concurrency-owner@yandex.ru"));
+        booker = userRepository.save(new User(null, "booker", "concurrency-booker@yandex.ru"));
+        item = new Item();
+        item.setName("item");
+        item.setDescription("itemDescription");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findActiveBookingsByItemId(
+                item.getId(), List.of(WAITING, APPROVED), LocalDateTime.now()));
+        itemRepository.delete(item);
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    public void concurrentApprovalsOfOverlappingBookingsApproveOnlyOne() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            bookingIds.add(saveWaiting(start.plusHours(i), start.plusDays(2)));
+        }
+
+        List<Boolean> results = approveConcurrently(bookingIds);
+
+        Assertions.assertEquals(1, results.stream().filter(approved -> approved).count());
+        List<Booking> approved = bookingRepository.findActiveBookingsByItemId(
+                item.getId(), List.of(APPROVED), LocalDateTime.now());
+        Assertions.assertEquals(1, approved.size());
+    }
+
+    @Test
+    public void concurrentApprovalsOfDisjointBookingsApproveAll() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            bookingIds.add(saveWaiting(start.plusHours(i), start.plusHours(i + 1)));
+        }
+
+        List<Boolean> results = approveConcurrently(bookingIds);
+
+        Assertions.assertTrue(results.stream().allMatch(approved -> approved));
+        List<Booking> approved = bookingRepository.findActiveBookingsByItemId(
+                item.getId(), List.of(APPROVED), LocalDateTime.now());
+        Assertions.assertEquals(bookingIds.size(), approved.size());
+    }
+
+    private long saveWaiting(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, WAITING)).getId();
+    }
+
+    private List<Boolean> approveConcurrently(List<Long> bookingIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (Long bookingId : bookingIds) {
+            Callable<Boolean> approve = () -> {
+                startGate.await();
+                try {
+                    bookingService.updateBooking(owner.getId(), bookingId, "true");
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            };
+            futures.add(executor.submit(approve));
+        }
+        startGate.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return results;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingAvailabilityIndexTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    private BookingJpaRepository bookingRepository;
+    private BookingAvailabilityIndex index;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingJpaRepository.class);
+        when(bookingRepository.findActiveBookingsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        index = new BookingAvailabilityIndex(bookingRepository, 1, Duration.ofMinutes(10));
+        item = new Item(1L, "Дрель", "Простая дрель", true, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void rollbackRemovesOnlyRolledBackBooking() {
+        List<TransactionSynchronization> first = reserveInTransaction(booking(1L, 0, 2));
+        List<TransactionSynchronization> second = reserveInTransaction(booking(2L, 3, 5));
+
+        complete(second, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(index.isAvailable(item.getId(), START.plusDays(1), START.plusDays(2)));
+        assertTrue(index.isAvailable(item.getId(), START.plusDays(3), START.plusDays(4)));
+        assertFalse(index.tryReserve(booking(3L, 1, 4)));
+        verify(bookingRepository, times(1)).findActiveBookingsByItemId(eq(item.getId()), any(), any());
+        complete(first, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    @Test
+    public void pruneKeepsTreesWithPendingReservations() {
+        Item other = new Item(2L, "Пила", "Ручная пила", true, null, null);
+        List<TransactionSynchronization> pending = reserveInTransaction(booking(1L, 0, 2));
+        index.isAvailable(other.getId(), START, START.plusDays(1));
+
+        index.prune();
+
+        assertEquals(1, index.size());
+        assertFalse(index.isAvailable(item.getId(), START, START.plusDays(1)));
+
+        complete(pending, TransactionSynchronization.STATUS_COMMITTED);
+        index.prune();
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void rejectIsAppliedOnlyAfterCommit() {
+        Booking booking = booking(1L, 0, 2);
+        index.tryReserve(booking);
+        booking.setStatus(BookingStatus.REJECTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.update(booking);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(index.isAvailable(item.getId(), START, START.plusDays(1)));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.isAvailable(item.getId(), START, START.plusDays(1)));
+    }
+
+    @Test
+    public void holdBlocksOverlapsUntilRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        BookingAvailabilityIndex.Hold hold = index.tryHold(item.getId(), START, START.plusDays(2));
+        Booking booking = booking(7L, 0, 2);
+        index.confirm(hold, booking);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertNull(index.tryHold(item.getId(), START.plusDays(1), START.plusDays(3)));
+        complete(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(index.isAvailable(item.getId(), START, START.plusDays(2)));
+    }
+
+    private List<TransactionSynchronization> reserveInTransaction(Booking booking) {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(index.tryReserve(booking));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private Booking booking(long id, int startDay, int endDay) {
+        return new Booking(id, START.plusDays(startDay), START.plusDays(endDay), item, null, BookingStatus.WAITING);
+    }
+}
@@ -8,8 +8,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -20,8 +24,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -29,6 +37,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingExportService bookingExportService;
     @Autowired
     private MockMvc mockMvc;
     @Autowired
@@ -61,6 +71,47 @@ public class BookingControllerTest {
                 .getBookingById(1L, 1L);
     }
 
+    @Test
+    public void exportBookingsByOwner() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+        when(bookingExportService.exportBookingsByOwner(1L, false)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", BookingExportService.NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+        verify(bookingExportService, times(1)).exportBookingsByOwner(1L, false);
+    }
+
+    @Test
+    public void exportBookingsByOwnerAsCsv() throws Exception {
+        StreamingResponseBody body = out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+        when(bookingExportService.exportBookingsByOwner(1L, true)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Accept", "text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", BookingExportService.CSV))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    public void exportBookingsByUnknownOwner() throws Exception {
+        when(bookingExportService.exportBookingsByOwner(100L, false)).thenThrow(new NotFoundException("Not Found"));
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 100L))
+                .andExpect(status().is(404));
+    }
+
     @Test
     public void getUnknownBookingById() throws Exception {
         when(bookingService.getBookingById(1L, 100L)).thenThrow(new NotFoundException("Not Found"));
@@ -89,6 +140,46 @@ public class BookingControllerTest {
                 .getAllBookingByBooker("ALL", 1L, 0, 10);
     }
 
+    @Test
+    public void getBookingBookerReturnsNextCursor() throws Exception {
+        when(bookingService.getAllBookingByBooker("ALL", 1L, 0, 1))
+                .thenReturn(List.of(bookingOutDto));
+
+        mockMvc.perform(get("/bookings?state={state}&size={size}", "ALL", 1)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.of(bookingOutDto).encode()));
+    }
+
+    @Test
+    public void getBookingBookerLastPageHasNoNextCursor() throws Exception {
+        when(bookingService.getAllBookingByBooker("ALL", 1L, 0, 10))
+                .thenReturn(List.of(bookingOutDto));
+
+        mockMvc.perform(get("/bookings?state={state}", "ALL")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void getBookingBookerAfterCursor() throws Exception {
+        String cursor = new BookingCursor(LocalDateTime.parse("2023-04-01T00:09:00"), 5L).encode();
+        when(bookingService.getAllBookingByBookerAfter("ALL", 1L, cursor, 10))
+                .thenReturn(List.of(bookingOutDto));
+
+        mockMvc.perform(get("/bookings?state={state}&after={after}", "ALL", cursor)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1L));
+        verify(bookingService, times(1))
+                .getAllBookingByBookerAfter("ALL", 1L, cursor, 10);
+        verify(bookingService, never())
+                .getAllBookingByBooker(anyString(), anyLong(), anyInt(), anyInt());
+    }
+
     @Test
     public void getBookingUnknownBooker() throws Exception {
         when(bookingService.getAllBookingByBooker("ALL", 100L, 0, 10))
@@ -118,6 +209,21 @@ public class BookingControllerTest {
                 .getAllBookingByOwner("ALL", 1L, 0, 10);
     }
 
+    @Test
+    public void getAllBookingOwnerAfterCursor() throws Exception {
+        String cursor = new BookingCursor(LocalDateTime.parse("2023-04-01T00:09:00"), 5L).encode();
+        when(bookingService.getAllBookingByOwnerAfter("ALL", 1L, cursor, 10))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings/owner?state={state}&after={after}", "ALL", cursor)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+        verify(bookingService, times(1))
+                .getAllBookingByOwnerAfter("ALL", 1L, cursor, 10);
+    }
+
     @Test
     public void getAllBookingUnknownOwner() throws Exception {
         when(bookingService.getAllBookingByOwner("ALL", 1L, 0, 10))
@@ -154,6 +260,76 @@ public class BookingControllerTest {
                 .saveNewBooking(1L, bookingInDto);
     }
 
+    @Test
+    public void saveNewBookings() throws Exception {
+        bookingInDto = new BookingInDto(1L, LocalDateTime.parse("2023-03-01T00:09:00"),
+                LocalDateTime.parse("2023-03-03T00:09:00"));
+        BookingInDto unknownItem = new BookingInDto(100L, LocalDateTime.parse("2023-03-01T00:09:00"),
+                LocalDateTime.parse("2023-03-03T00:09:00"));
+        List<BookingInDto> bookings = List.of(bookingInDto, unknownItem);
+
+        when(bookingService.saveNewBookings(1L, bookings)).thenReturn(List.of(
+                new BookingBatchResultDto(0, bookingOutDto, null),
+                new BookingBatchResultDto(1, null, "Вещь с id=100 не найдена")));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(bookings))
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].booking.id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("Вещь с id=100 не найдена"));
+        verify(bookingService, times(1))
+                .saveNewBookings(1L, bookings);
+    }
+
+    @Test
+    public void saveNewBookingsWithNullElement() throws Exception {
+        mockMvc.perform(post("/bookings/batch")
+                        .content("[null]")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).saveNewBookings(anyLong(), any());
+    }
+
+    @Test
+    public void decideBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true));
+
+        when(bookingService.decideBookings(1L, decisions)).thenReturn(List.of(bookingOutDto));
+
+        mockMvc.perform(patch("/bookings/owner/decisions")
+                        .content(mapper.writeValueAsString(decisions))
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1));
+        verify(bookingService, times(1))
+                .decideBookings(1L, decisions);
+    }
+
+    @Test
+    public void decideBookingsWithNullElement() throws Exception {
+        mockMvc.perform(patch("/bookings/owner/decisions")
+                        .content("[null]")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).decideBookings(anyLong(), any());
+    }
+
     @Test
     public void saveNewBookingUnknownUser() throws Exception {
         bookingInDto = new BookingInDto();
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+public class BookingExportServiceTest {
+    private final EntityManager em;
+    private final BookingExportService bookingExportService;
+
+    private User owner;
+    private Booking booking1;
+    private Booking booking2;
+
+    @BeforeEach
+    public void setUp() {
+        owner = new User(null, "owner", "export-owner@yandex.ru");
+        User booker = new User(null, "booker", "export-booker@yandex.ru");
+        User stranger = new User(null, "stranger", "export-stranger@yandex.ru");
+
+        Item item = new Item();
+        item.setName("Дрель, \"ударная\"");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        Item strangerItem = new Item();
+        strangerItem.setName("Пила");
+        strangerItem.setDescription("Ручная пила");
+        strangerItem.setAvailable(true);
+        strangerItem.setOwner(stranger);
+
+        booking1 = new Booking(null, LocalDateTime.parse("2023-05-01T10:00:00"),
+                LocalDateTime.parse("2023-05-02T10:00:00"), item, booker, APPROVED);
+        booking2 = new Booking(null, LocalDateTime.parse("2023-05-03T10:00:00"),
+                LocalDateTime.parse("2023-05-04T10:00:00"), item, booker, WAITING);
+        Booking strangerBooking = new Booking(null, LocalDateTime.parse("2023-05-01T10:00:00"),
+                LocalDateTime.parse("2023-05-02T10:00:00"), strangerItem, booker, WAITING);
+
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(stranger);
+        em.persist(item);
+        em.persist(strangerItem);
+        em.persist(booking1);
+        em.persist(booking2);
+        em.persist(strangerBooking);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void exportBookingsByOwnerAsNdjson() throws IOException {
+        String[] lines = export(false).split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"id\":" + booking1.getId() + ","));
+        Assertions.assertTrue(lines[0].contains("\"start\":\"2023-05-01T10:00:00\""));
+        Assertions.assertTrue(lines[0].contains("\"status\":\"APPROVED\""));
+        Assertions.assertTrue(lines[1].startsWith("{\"id\":" + booking2.getId() + ","));
+    }
+
+    @Test
+    public void exportBookingsByOwnerAsCsv() throws IOException {
+        String[] lines = export(true).split("\n");
+
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertEquals("id,start,end,status,bookerId,bookerName,itemId,itemName", lines[0]);
+        Assertions.assertEquals(String.format("%s,2023-05-01T10:00,2023-05-02T10:00,APPROVED,%s,booker,%s,"
+                        + "\"Дрель, \"\"ударная\"\"\"", booking1.getId(), booking1.getBooker().getId(),
+                booking1.getItem().getId()), lines[1]);
+    }
+
+    @Test
+    public void exportBookingsByOwnerDoesNotLoadEntities() throws IOException {
+        StreamingResponseBody body = bookingExportService.exportBookingsByOwner(owner.getId(), false);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        body.writeTo(new ByteArrayOutputStream());
+
+        statistics.setStatisticsEnabled(false);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void exportBookingsByUnknownOwner() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingExportService.exportBookingsByOwner(999L, false));
+    }
+
+    private String export(boolean csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.exportBookingsByOwner(owner.getId(), csv).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.parse("2030-01-01T00:00:00");
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    public void setUp() {
+        tree = new BookingIntervalTree();
+    }
+
+    @Test
+    public void overlapsIsHalfOpen() {
+        tree.insert(1L, base.plusHours(10), base.plusHours(20));
+
+        assertTrue(tree.overlaps(base.plusHours(15), base.plusHours(25)));
+        assertTrue(tree.overlaps(base.plusHours(5), base.plusHours(11)));
+        assertTrue(tree.overlaps(base.plusHours(12), base.plusHours(13)));
+        assertFalse(tree.overlaps(base.plusHours(20), base.plusHours(25)));
+        assertFalse(tree.overlaps(base.plusHours(5), base.plusHours(10)));
+    }
+
+    @Test
+    public void overlapsFindsLongIntervalInLeftSubtree() {
+        tree.insert(1L, base.plusHours(1), base.plusHours(100));
+        tree.insert(2L, base.plusHours(2), base.plusHours(3));
+        tree.insert(3L, base.plusHours(4), base.plusHours(5));
+
+        assertTrue(tree.overlaps(base.plusHours(50), base.plusHours(60)));
+    }
+
+    @Test
+    public void removeAndReinsert() {
+        tree.insert(1L, base.plusHours(10), base.plusHours(20));
+        tree.insert(2L, base.plusHours(30), base.plusHours(40));
+        tree.remove(1L);
+
+        assertFalse(tree.contains(1L));
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(base.plusHours(10), base.plusHours(20)));
+
+        tree.insert(2L, base.plusHours(50), base.plusHours(60));
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(base.plusHours(30), base.plusHours(40)));
+        assertTrue(tree.overlaps(base.plusHours(55), base.plusHours(56)));
+    }
+
+    @Test
+    public void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+
+        for (long id = 1; id <= 2000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(50);
+            tree.insert(id, base.plusMinutes(start), base.plusMinutes(end));
+            intervals.add(new long[]{id, start, end});
+        }
+        for (int i = 0; i < 1000; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0]);
+        }
+
+        assertEquals(intervals.size(), tree.size());
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(50);
+            boolean expected = intervals.stream().anyMatch(iv -> iv[1] < end && start < iv[2]);
+            assertEquals(expected, tree.overlaps(base.plusMinutes(start), base.plusMinutes(end)));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.ItemJpaRepository;
@@ -12,6 +15,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserJpaRepository;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +29,8 @@ public class BookingJpaRepositoryTest {
     private ItemJpaRepository itemRepository;
     @Autowired
     private UserJpaRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private User user1;
     private User user2;
     private User user3;
@@ -60,57 +66,100 @@ public class BookingJpaRepositoryTest {
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(booking2, result.get(0));
-        assertEquals(booking3, result.get(1));
+        assertEquals(booking2.getId(), result.get(0).getId());
+        assertEquals(booking3.getId(), result.get(1).getId());
     }
 
     @Test
     public void findByBooker_IdAndStartIsAfter() {
-        Sort startSort = Sort.by("start");
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start"));
 
         var result = bookingRepository.findByBooker_IdAndStartIsAfter(
-                user3.getId(), LocalDateTime.parse("2023-03-04T00:09:00"), startSort);
+                user3.getId(), LocalDateTime.parse("2023-03-04T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(booking3, result.get(0));
-        assertEquals(booking2, result.get(1));
+        assertEquals(booking3.getId(), result.get(0).getId());
+        assertEquals(booking2.getId(), result.get(1).getId());
     }
 
     @Test
     public void findByBooker_IdAndEndIsBefore() {
-        Sort startSort = Sort.by("start");
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start"));
 
         var result = bookingRepository.findByBooker_IdAndEndIsBefore(
-                user3.getId(), LocalDateTime.parse("2023-03-31T00:09:00"), startSort);
+                user3.getId(), LocalDateTime.parse("2023-03-31T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(booking3, result.get(0));
-        assertEquals(booking2, result.get(1));
+        assertEquals(booking3.getId(), result.get(0).getId());
+        assertEquals(booking2.getId(), result.get(1).getId());
+    }
+
+    @Test
+    public void findByBooker_IdAndEndIsBeforeWithPaging() {
+        Sort startSort = Sort.by("start").descending();
+
+        var firstPage = bookingRepository.findByBooker_IdAndEndIsBefore(
+                user3.getId(), LocalDateTime.parse("2023-03-31T00:09:00"), FromSizeRequest.of(0, 1, startSort));
+        var secondPage = bookingRepository.findByBooker_IdAndEndIsBefore(
+                user3.getId(), LocalDateTime.parse("2023-03-31T00:09:00"), FromSizeRequest.of(1, 1, startSort));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(booking2.getId(), firstPage.get(0).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(booking3.getId(), secondPage.get(0).getId());
     }
 
     @Test
     public void findByBooker_IdAndStartIsBeforeAndEndIsAfter() {
-        Sort startSort = Sort.by("start");
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start"));
 
         var result = bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(
                 user3.getId(), LocalDateTime.parse("2023-03-20T00:09:00"),
-                LocalDateTime.parse("2023-03-20T00:09:00"), startSort);
+                LocalDateTime.parse("2023-03-20T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking2, result.get(0));
+        assertEquals(booking2.getId(), result.get(0).getId());
     }
 
     @Test
     public void findBookingByBooker_IdAndStatus() {
         var result = bookingRepository.findBookingByBooker_IdAndStatus(
-                user3.getId(), REJECTED);
+                user3.getId(), REJECTED, FromSizeRequest.of(0, 10, Sort.by("start").descending()));
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking3, result.get(0));
+        assertEquals(booking3.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void findBookerBookingsAfter() {
+        var firstPage = bookingRepository.findBookerBookingsAfter(
+                user3.getId(), BookingState.ALL, LocalDateTime.parse("2023-03-20T00:09:00"), null, 1);
+        var secondPage = bookingRepository.findBookerBookingsAfter(
+                user3.getId(), BookingState.ALL, LocalDateTime.parse("2023-03-20T00:09:00"),
+                new BookingCursor(booking2.getStart(), booking2.getId()), 1);
+        var lastPage = bookingRepository.findBookerBookingsAfter(
+                user3.getId(), BookingState.ALL, LocalDateTime.parse("2023-03-20T00:09:00"),
+                new BookingCursor(booking3.getStart(), booking3.getId()), 1);
+
+        assertEquals(1, firstPage.size());
+        assertEquals(booking2.getId(), firstPage.get(0).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(booking3.getId(), secondPage.get(0).getId());
+        assertEquals(0, lastPage.size());
+    }
+
+    @Test
+    public void findOwnerBookingsAfterForState() {
+        var result = bookingRepository.findOwnerBookingsAfter(
+                user1.getId(), BookingState.CURRENT, LocalDateTime.parse("2023-03-20T00:09:00"),
+                new BookingCursor(LocalDateTime.parse("2023-04-01T00:00:00"), 100L), 10);
+
+        assertEquals(1, result.size());
+        assertEquals(booking2.getId(), result.get(0).getId());
     }
 
     @Test
@@ -122,56 +171,75 @@ public class BookingJpaRepositoryTest {
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(booking2, result.get(0));
-        assertEquals(booking1, result.get(1));
+        assertEquals(booking2.getId(), result.get(0).getId());
+        assertEquals(booking1.getId(), result.get(1).getId());
+    }
+
+    @Test
+    public void findBookingByItemOwnerIdInSingleQueryWithoutEntities() {
+        bookingRepository.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        var result = bookingRepository.findBookingByItemOwnerId(
+                user1.getId(), FromSizeRequest.of(0, 10, Sort.by("start").descending()));
+
+        statistics.setStatisticsEnabled(false);
+        assertEquals(2, result.size());
+        assertEquals("user3", result.get(0).getBooker().getName());
+        assertEquals("item1", result.get(0).getItem().getName());
+        assertEquals(APPROVED, result.get(0).getStatus());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
     }
 
     @Test
     public void findBookingByItemOwnerIdAndStatus() {
         var result = bookingRepository.findBookingByItemOwnerIdAndStatus(
-                user1.getId(), CANCELED);
+                user1.getId(), CANCELED, FromSizeRequest.of(0, 10, Sort.by("start").descending()));
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking1, result.get(0));
+        assertEquals(booking1.getId(), result.get(0).getId());
     }
 
     @Test
     public void findBookingByItemOwnerIdAndStartIsAfter() {
-        Sort startSort = Sort.by("start").descending();
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start").descending());
 
         var result = bookingRepository.findBookingByItemOwnerIdAndStartIsAfter(
-                user1.getId(), LocalDateTime.parse("2023-02-01T00:09:00"), startSort);
+                user1.getId(), LocalDateTime.parse("2023-02-01T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(booking2, result.get(0));
-        assertEquals(booking1, result.get(1));
+        assertEquals(booking2.getId(), result.get(0).getId());
+        assertEquals(booking1.getId(), result.get(1).getId());
     }
 
     @Test
     public void findBookingByItemOwnerIdAndEndIsBefore() {
-        Sort startSort = Sort.by("start").descending();
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start").descending());
 
         var result = bookingRepository.findBookingByItemOwnerIdAndEndIsBefore(
-                user1.getId(), LocalDateTime.parse("2023-03-10T00:09:00"), startSort);
+                user1.getId(), LocalDateTime.parse("2023-03-10T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking1, result.get(0));
+        assertEquals(booking1.getId(), result.get(0).getId());
     }
 
     @Test
     public void findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter() {
-        Sort startSort = Sort.by("start");
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("start"));
 
         var result = bookingRepository.findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
                 user1.getId(), LocalDateTime.parse("2023-03-02T00:09:00"),
-                LocalDateTime.parse("2023-03-02T00:09:00"), startSort);
+                LocalDateTime.parse("2023-03-02T00:09:00"), pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking1, result.get(0));
+        assertEquals(booking1.getId(), result.get(0).getId());
     }
 
     @Test
@@ -187,15 +255,34 @@ public class BookingJpaRepositoryTest {
     }
 
     @Test
-    public void findBookingByItemIdAndStartIsAfter() {
-        Sort startSort = Sort.by("start");
+    public void findNextBookingByItemId() {
+        var result = bookingRepository.findNextBookingByItemId(
+                item1.getId(), LocalDateTime.parse("2023-02-05T00:09:00"), REJECTED, PageRequest.of(0, 1));
 
-        var result = bookingRepository.findBookingByItemIdAndStartIsAfterAndStatusIsNot(
-                item1.getId(), LocalDateTime.parse("2023-03-05T00:09:00"), REJECTED, startSort);
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(booking1.getId(), result.get(0).getId());
+        assertEquals(user2.getId(), result.get(0).getBookerId());
+    }
+
+    @Test
+    public void findLastBookingByItemId() {
+        var result = bookingRepository.findLastBookingByItemId(
+                item1.getId(), LocalDateTime.parse("2023-03-20T00:09:00"), PageRequest.of(0, 1));
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(booking2, result.get(0));
+        assertEquals(booking2.getId(), result.get(0).getId());
+        assertEquals(user3.getId(), result.get(0).getBookerId());
+    }
+
+    @Test
+    public void findLastBookingByItemIdWithoutBookings() {
+        var result = bookingRepository.findLastBookingByItemId(
+                item1.getId(), LocalDateTime.parse("2023-02-05T00:09:00"), PageRequest.of(0, 1));
+
+        assertNotNull(result);
+        assertEquals(0, result.size());
     }
 
     @Test
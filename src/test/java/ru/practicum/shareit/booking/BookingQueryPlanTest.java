@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.validation.FromSizeRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingQueryPlanTest$SqlCapture")
+public class BookingQueryPlanTest {
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private final LocalDateTime nowDate = LocalDateTime.now();
+    private final Sort startSort = Sort.by("start").descending();
+    private final Pageable pageable = FromSizeRequest.of(10, 10, startSort);
+
+    @BeforeEach
+    public void setUp() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    public void bookerQueriesUseIndex() {
+        assertIndexScan(() -> bookingRepository.findBookingByBooker_Id(1L, pageable));
+        assertIndexScan(() -> bookingRepository.findBookingByBooker_IdAndStatus(1L, WAITING, pageable));
+        assertIndexScan(() -> bookingRepository.findByBooker_IdAndStartIsAfter(1L, nowDate, pageable));
+        assertIndexScan(() -> bookingRepository.findByBooker_IdAndEndIsBefore(1L, nowDate, pageable));
+        assertIndexScan(() -> bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(
+                1L, nowDate, nowDate, pageable));
+        assertIndexScan(() -> bookingRepository.findByBooker_IdAndItem_IdAndEndIsBefore(1L, 1L, nowDate));
+    }
+
+    @Test
+    public void ownerQueriesUseIndex() {
+        assertIndexScan(() -> bookingRepository.findBookingByItemOwnerId(1L, pageable));
+        assertIndexScan(() -> bookingRepository.findBookingByItemOwnerIdAndStatus(1L, WAITING, pageable));
+        assertIndexScan(() -> bookingRepository.findBookingByItemOwnerIdAndStartIsAfter(1L, nowDate, pageable));
+        assertIndexScan(() -> bookingRepository.findBookingByItemOwnerIdAndEndIsBefore(1L, nowDate, pageable));
+        assertIndexScan(() -> bookingRepository.findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
+                1L, nowDate, nowDate, pageable));
+    }
+
+    @Test
+    public void keysetQueriesUseIndex() {
+        BookingCursor cursor = new BookingCursor(nowDate, 100L);
+
+        for (BookingState state : BookingState.values()) {
+            assertIndexScan(() -> bookingRepository.findBookerBookingsAfter(1L, state, nowDate, cursor, 10));
+            assertIndexScan(() -> bookingRepository.findOwnerBookingsAfter(1L, state, nowDate, cursor, 10));
+        }
+    }
+
+    @Test
+    public void itemQueriesUseIndex() {
+        assertIndexScan(() -> bookingRepository.findBookingByItemIdAndEndIsBefore(1L, nowDate, startSort));
+        assertIndexScan(() -> bookingRepository.findActiveBookingsByItemId(1L, List.of(WAITING), nowDate));
+        assertIndexScan(() -> bookingRepository.existsOverlappingBooking(1L, 2L, APPROVED, nowDate, nowDate));
+        assertIndexScan(() -> bookingRepository.findLastBookingByItemId(1L, nowDate, PageRequest.of(0, 1)));
+        assertIndexScan(() -> bookingRepository.findNextBookingByItemId(
+                1L, nowDate, REJECTED, PageRequest.of(0, 1)));
+        assertIndexScan(() -> bookingRepository.findLastBookingsByItemIds(List.of(1L, 2L), nowDate));
+        assertIndexScan(() -> bookingRepository.findNextBookingsByItemIds(List.of(1L, 2L), nowDate));
+    }
+
+    private void assertIndexScan(Runnable query) {
+        SqlCapture.STATEMENTS.clear();
+        query.run();
+        assertFalse(SqlCapture.STATEMENTS.isEmpty());
+
+        for (String sql : SqlCapture.STATEMENTS) {
+            String plan = jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                    rs -> rs.next() ? rs.getString(1) : null);
+            assertNotNull(plan);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
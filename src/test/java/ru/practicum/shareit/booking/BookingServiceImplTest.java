@@ -1,28 +1,37 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemIdFilter;
 import ru.practicum.shareit.item.ItemJpaRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserIdFilter;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.booking.BookingStatus.*;
 
 public class BookingServiceImplTest {
@@ -47,9 +56,13 @@ public class BookingServiceImplTest {
         bookingRepository = mock(BookingJpaRepository.class);
         itemRepository = mock(ItemJpaRepository.class);
         userRepository = mock(UserJpaRepository.class);
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository,
+                new UserLookup(userRepository, new UserIdFilter(userRepository), 1024),
+                itemRepository, new ItemIdFilter(itemRepository),
+                new BookingAvailabilityIndex(bookingRepository, 10000, Duration.ofMinutes(10)),
+                new ItemDetailsCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30), new SimpleMeterRegistry()));
 
-        startSort = Sort.by("start").descending();
+        startSort = Sort.by("start").descending().and(Sort.by("id").descending());
         pageable = FromSizeRequest.of(0, 10, startSort);
 
         user1 = new User(1L, "user1", "user1@mail.ru");
@@ -73,7 +86,7 @@ public class BookingServiceImplTest {
     public void getAllBookingByBookerForStateALL() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository.findBookingByBooker_Id(user2.getId(), pageable))
-                .thenReturn(List.of(booking4, booking1));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking4, booking1)));
 
         var result = bookingService.getAllBookingByBooker("ALL", user2.getId(), 0, 10);
 
@@ -86,8 +99,8 @@ public class BookingServiceImplTest {
     @Test
     public void getAllBookingByBookerForStateWAITING() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(bookingRepository.findBookingByBooker_IdAndStatus(user2.getId(), WAITING))
-                .thenReturn(List.of(booking4));
+        when(bookingRepository.findBookingByBooker_IdAndStatus(user2.getId(), WAITING, pageable))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking4)));
 
         var result = bookingService.getAllBookingByBooker("WAITING", user2.getId(), 0, 10);
 
@@ -99,8 +112,8 @@ public class BookingServiceImplTest {
     @Test
     public void getAllBookingByBookerForStateREJECTED() {
         when(userRepository.findById(user3.getId())).thenReturn(Optional.of(user3));
-        when(bookingRepository.findBookingByBooker_IdAndStatus(user3.getId(), REJECTED))
-                .thenReturn(List.of(booking3));
+        when(bookingRepository.findBookingByBooker_IdAndStatus(user3.getId(), REJECTED, pageable))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking3)));
 
         var result = bookingService.getAllBookingByBooker("REJECTED", user3.getId(), 0, 10);
 
@@ -113,7 +126,7 @@ public class BookingServiceImplTest {
     public void getAllBookingByBookerForStateFUTURE() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository.findByBooker_IdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking4));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking4)));
 
         var result = bookingService.getAllBookingByBooker("FUTURE", user2.getId(), 0, 10);
 
@@ -127,7 +140,7 @@ public class BookingServiceImplTest {
         when(userRepository.findById(user3.getId())).thenReturn(Optional.of(user3));
         when(bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(
                 anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking2, booking3));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking2, booking3)));
 
         var result = bookingService.getAllBookingByBooker("CURRENT", user3.getId(), 0, 10);
 
@@ -142,7 +155,7 @@ public class BookingServiceImplTest {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository.findByBooker_IdAndEndIsBefore(
                 anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking1));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking1)));
 
         var result = bookingService.getAllBookingByBooker("PAST", user2.getId(), 0, 10);
 
@@ -172,11 +185,53 @@ public class BookingServiceImplTest {
                 });
     }
 
+    @Test
+    public void getAllBookingByBookerAfterCursor() {
+        BookingCursor cursor = new BookingCursor(booking4.getStart(), booking4.getId());
+
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(bookingRepository.findBookerBookingsAfter(eq(user2.getId()), eq(BookingState.ALL),
+                any(LocalDateTime.class), any(BookingCursor.class), eq(10)))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking1)));
+
+        var result = bookingService.getAllBookingByBookerAfter("ALL", user2.getId(), cursor.encode(), 10);
+
+        assertNotNull(result);
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(booking1.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void getAllBookingByBookerAfterInvalidCursor() {
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> {
+                    bookingService.getAllBookingByBookerAfter("ALL", user2.getId(), "not-a-cursor", 10);
+                });
+    }
+
+    @Test
+    public void getAllBookingByOwnerAfterCursor() {
+        BookingCursor cursor = new BookingCursor(booking2.getStart(), booking2.getId());
+
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(bookingRepository.findOwnerBookingsAfter(eq(user1.getId()), eq(BookingState.PAST),
+                any(LocalDateTime.class), any(BookingCursor.class), eq(10)))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking1)));
+
+        var result = bookingService.getAllBookingByOwnerAfter("PAST", user1.getId(), cursor.encode(), 10);
+
+        assertNotNull(result);
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(booking1.getId(), result.get(0).getId());
+    }
+
     @Test
     public void getAllBookingByOwnerForStateALL() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
         when(bookingRepository.findBookingByItemOwnerId(user1.getId(), pageable))
-                .thenReturn(List.of(booking2, booking1));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking2, booking1)));
 
         var result = bookingService.getAllBookingByOwner("ALL", user1.getId(), 0, 10);
 
@@ -189,8 +244,8 @@ public class BookingServiceImplTest {
     @Test
     public void getAllBookingByOwnerForStateWAITING() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        when(bookingRepository.findBookingByItemOwnerIdAndStatus(user1.getId(), WAITING))
-                .thenReturn(List.of(booking4));
+        when(bookingRepository.findBookingByItemOwnerIdAndStatus(user1.getId(), WAITING, pageable))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking4)));
 
         var result = bookingService.getAllBookingByOwner("WAITING", user1.getId(), 0, 10);
 
@@ -202,8 +257,8 @@ public class BookingServiceImplTest {
     @Test
     public void getAllBookingByOwnerForStateREJECTED() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(bookingRepository.findBookingByItemOwnerIdAndStatus(user2.getId(), REJECTED))
-                .thenReturn(List.of(booking3));
+        when(bookingRepository.findBookingByItemOwnerIdAndStatus(user2.getId(), REJECTED, pageable))
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking3)));
 
         var result = bookingService.getAllBookingByOwner("REJECTED", user2.getId(), 0, 10);
 
@@ -216,7 +271,7 @@ public class BookingServiceImplTest {
     public void getAllBookingByOwnerForStateFUTURE() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
         when(bookingRepository.findBookingByItemOwnerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking4));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking4)));
 
         var result = bookingService.getAllBookingByOwner("FUTURE", user1.getId(), 0, 10);
 
@@ -230,7 +285,7 @@ public class BookingServiceImplTest {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
         when(bookingRepository.findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
                 anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking2));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking2)));
 
         var result = bookingService.getAllBookingByOwner("CURRENT", user1.getId(), 0, 10);
 
@@ -244,7 +299,7 @@ public class BookingServiceImplTest {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
         when(bookingRepository.findBookingByItemOwnerIdAndEndIsBefore(
                 anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking1));
+                .thenReturn(BookingMapper.mapToListBookingOutDto(List.of(booking1)));
 
         var result = bookingService.getAllBookingByOwner("PAST", user1.getId(), 0, 10);
 
@@ -362,6 +417,163 @@ public class BookingServiceImplTest {
         Assertions.assertEquals(item1.getId(), result.getItem().getId());
     }
 
+    @Test
+    public void saveNewBookingOverlapsExistingBooking() {
+        BookingInDto bookingInDto = new BookingInDto(1L, LocalDateTime.now().plusDays(3),
+                LocalDateTime.now().plusDays(5));
+        Booking existing = new Booking(5L, LocalDateTime.now().plusDays(4),
+                LocalDateTime.now().plusDays(6), item1, user3, APPROVED);
+
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
+        when(bookingRepository.findActiveBookingsByItemId(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(existing));
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> {
+                    bookingService.saveNewBooking(user2.getId(), bookingInDto);
+                });
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void saveNewBookingAdjacentToExistingBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        BookingInDto bookingInDto = new BookingInDto(1L, start, start.plusDays(2));
+        Booking existing = new Booking(5L, start.plusDays(2), start.plusDays(4), item1, user3, WAITING);
+        Booking newBooking = new Booking(6L, start, start.plusDays(2), item1, user2, WAITING);
+
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
+        when(bookingRepository.findActiveBookingsByItemId(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(existing));
+        when(bookingRepository.save(any())).thenReturn(newBooking);
+
+        var result = bookingService.saveNewBooking(user2.getId(), bookingInDto);
+
+        Assertions.assertEquals(newBooking.getId(), result.getId());
+    }
+
+    @Test
+    public void saveNewBookingsReturnsResultPerEntry() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        List<BookingInDto> bookingInDtos = List.of(
+                new BookingInDto(item1.getId(), start, start.plusDays(2)),
+                new BookingInDto(item1.getId(), start.plusDays(1), start.plusDays(3)),
+                new BookingInDto(100L, start, start.plusDays(2)),
+                new BookingInDto(item2.getId(), start, start.plusDays(2)),
+                new BookingInDto(item1.getId(), start.plusDays(2), start.plusDays(4)));
+
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item1, item2));
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            Assertions.assertEquals(2, bookings.size());
+            long id = 10;
+            for (Booking booking : bookings) {
+                booking.setId(id++);
+            }
+            return bookings;
+        });
+
+        var result = bookingService.saveNewBookings(user2.getId(), bookingInDtos);
+
+        Assertions.assertEquals(5, result.size());
+        Assertions.assertEquals(10L, result.get(0).getBooking().getId());
+        Assertions.assertEquals(WAITING, result.get(0).getBooking().getStatus());
+        Assertions.assertEquals("Вещь уже забронирована на указанный период", result.get(1).getError());
+        Assertions.assertEquals("Вещь с id=100 не найдена", result.get(2).getError());
+        Assertions.assertEquals("Владелец не может забронировать свою вещь", result.get(3).getError());
+        Assertions.assertEquals(11L, result.get(4).getBooking().getId());
+        Assertions.assertEquals(4, result.get(4).getIndex());
+        verify(userRepository, times(1)).findById(user2.getId());
+        verify(itemRepository, times(1)).findAllById(any());
+        verify(bookingRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    public void saveNewBookingsTooLargeBatch() {
+        List<BookingInDto> bookingInDtos = new ArrayList<>();
+        for (int i = 0; i <= BookingServiceImpl.MAX_BATCH_SIZE; i++) {
+            bookingInDtos.add(new BookingInDto(item1.getId(), LocalDateTime.now().plusDays(3),
+                    LocalDateTime.now().plusDays(5)));
+        }
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> {
+                    bookingService.saveNewBookings(user2.getId(), bookingInDtos);
+                });
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void saveNewBookingsWithNullElement() {
+        List<BookingInDto> bookingInDtos = new ArrayList<>();
+        bookingInDtos.add(null);
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.saveNewBookings(user2.getId(), bookingInDtos));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void decideBookingsWithNullElement() {
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        decisions.add(null);
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.decideBookings(user1.getId(), decisions));
+        verify(bookingRepository, never()).lockOwnerBookingsByIds(any(), anyLong());
+    }
+
+    @Test
+    public void decideBookingsDuplicateBooking() {
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> {
+                    bookingService.decideBookings(user1.getId(), List.of(
+                            new BookingDecisionDto(booking4.getId(), true),
+                            new BookingDecisionDto(booking4.getId(), false)));
+                });
+        verify(bookingRepository, never()).updateOwnerBookingsStatus(any(), any(), anyLong());
+    }
+
+    @Test
+    public void decideBookingsNotOwner() {
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(bookingRepository.lockOwnerBookingsByIds(List.of(booking4.getId()), user2.getId()))
+                .thenReturn(List.of());
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> {
+                    bookingService.decideBookings(user2.getId(), List.of(
+                            new BookingDecisionDto(booking4.getId(), true)));
+                });
+        verify(bookingRepository, never()).updateOwnerBookingsStatus(any(), any(), anyLong());
+    }
+
+    @Test
+    public void decideBookingsRejectsWithSingleUpdate() {
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(bookingRepository.lockOwnerBookingsByIds(List.of(booking4.getId()), user1.getId()))
+                .thenReturn(List.of(booking4));
+        when(bookingRepository.updateOwnerBookingsStatus(REJECTED, List.of(booking4.getId()), user1.getId()))
+                .thenReturn(1);
+        when(bookingRepository.findBookingOutDtosByIds(List.of(booking4.getId())))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutDto(booking4)));
+
+        var result = bookingService.decideBookings(user1.getId(), List.of(
+                new BookingDecisionDto(booking4.getId(), false)));
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(REJECTED, booking4.getStatus());
+        verify(bookingRepository, times(1))
+                .updateOwnerBookingsStatus(REJECTED, List.of(booking4.getId()), user1.getId());
+        verify(itemRepository, never()).lockItemsByIds(any());
+    }
+
     @Test
     public void saveNewBookingUnknownUserId() {
         BookingInDto bookingInDto = new BookingInDto(1L, LocalDateTime.now().plusDays(3),
@@ -466,7 +678,7 @@ public class BookingServiceImplTest {
     @Test
     public void updateBooking() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
+        when(bookingRepository.lockBookingById(anyLong())).thenReturn(Optional.of(booking1));
 
         var result = bookingService.updateBooking(user1.getId(), item1.getId(), "false");
 
@@ -492,7 +704,7 @@ public class BookingServiceImplTest {
         Booking nullBooking = new Booking();
         nullBooking = null;
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(nullBooking));
+        when(bookingRepository.lockBookingById(anyLong())).thenReturn(Optional.ofNullable(nullBooking));
 
         Assertions.assertThrows(NotFoundException.class,
                 () -> {
@@ -503,7 +715,7 @@ public class BookingServiceImplTest {
     @Test
     public void updateBookingErrorOwner() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
+        when(bookingRepository.lockBookingById(anyLong())).thenReturn(Optional.of(booking1));
 
         Assertions.assertThrows(NotFoundException.class,
                 () -> {
@@ -514,11 +726,46 @@ public class BookingServiceImplTest {
     @Test
     public void updateBookingRepeatApproved() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking1));
+        when(bookingRepository.lockBookingById(anyLong())).thenReturn(Optional.of(booking1));
 
         Assertions.assertThrows(ValidationException.class,
                 () -> {
                     bookingService.updateBooking(user1.getId(), item1.getId(), "true");
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateBookingApprove() {
+        Booking waiting = new Booking(7L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item1, user2, WAITING);
+
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(bookingRepository.lockBookingById(waiting.getId())).thenReturn(Optional.of(waiting));
+        when(itemRepository.lockItemById(item1.getId())).thenReturn(Optional.of(item1));
+        when(bookingRepository.existsOverlappingBooking(item1.getId(), waiting.getId(), APPROVED,
+                waiting.getStart(), waiting.getEnd())).thenReturn(false);
+
+        var result = bookingService.updateBooking(user1.getId(), waiting.getId(), "true");
+
+        Assertions.assertEquals(APPROVED, result.getStatus());
+        verify(itemRepository).lockItemById(item1.getId());
+    }
+
+    @Test
+    public void updateBookingApproveOverlapsApproved() {
+        Booking waiting = new Booking(7L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item1, user2, WAITING);
+
+        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(bookingRepository.lockBookingById(waiting.getId())).thenReturn(Optional.of(waiting));
+        when(bookingRepository.existsOverlappingBooking(item1.getId(), waiting.getId(), APPROVED,
+                waiting.getStart(), waiting.getEnd())).thenReturn(true);
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> {
+                    bookingService.updateBooking(user1.getId(), waiting.getId(), "true");
+                });
+        Assertions.assertEquals(WAITING, waiting.getStatus());
+        verify(bookingRepository, never()).save(any());
+    }
+}
@@ -6,8 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -15,7 +20,10 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.BookingStatus.WAITING;
 
 @Transactional
@@ -86,8 +94,8 @@ public class BookingServiceIntegrationTest {
 
         BookingInDto bookingInDto = new BookingInDto();
         bookingInDto.setItemId(item1.getId());
-        bookingInDto.setStart(LocalDateTime.parse("2023-05-01T00:09:00"));
-        bookingInDto.setEnd(LocalDateTime.parse("2023-05-03T00:09:00"));
+        bookingInDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingInDto.setEnd(LocalDateTime.now().plusDays(3));
 
         BookingOutDto bookingOutDto = bookingService.saveNewBooking(user2.getId(), bookingInDto);
 
@@ -101,4 +109,163 @@ public class BookingServiceIntegrationTest {
         Assertions.assertEquals(booking.getBooker().getId(), user2.getId());
         Assertions.assertEquals(booking.getItem().getId(), item1.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void saveNewBookings() {
+        User user1 = new User();
+        user1.setName("user1");
+        user1.setEmail("user1@yandex.ru");
+
+        User user2 = new User();
+        user2.setName("user2");
+        user2.setEmail("user2@yandex.ru");
+
+        Item item1 = new Item();
+        item1.setName("item1");
+        item1.setDescription("itemDescription1");
+        item1.setAvailable(true);
+        item1.setOwner(user1);
+
+        Item item2 = new Item();
+        item2.setName("item2");
+        item2.setDescription("itemDescription2");
+        item2.setAvailable(true);
+        item2.setOwner(user1);
+
+        em.persist(user1);
+        em.persist(user2);
+        em.persist(item1);
+        em.persist(item2);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingBatchResultDto> results = bookingService.saveNewBookings(user2.getId(), List.of(
+                new BookingInDto(item1.getId(), start, start.plusDays(2)),
+                new BookingInDto(item2.getId(), start, start.plusDays(2)),
+                new BookingInDto(item2.getId(), start.plusDays(1), start.plusDays(2))));
+        em.flush();
+
+        TypedQuery<Booking> query = em.createQuery("select b from Booking b where b.booker.id = :id", Booking.class);
+        List<Booking> bookings = query.setParameter("id", user2.getId()).getResultList();
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertNotNull(results.get(0).getBooking());
+        Assertions.assertNotNull(results.get(1).getBooking());
+        Assertions.assertNull(results.get(2).getBooking());
+        Assertions.assertEquals("Вещь уже забронирована на указанный период", results.get(2).getError());
+        Assertions.assertEquals(2, bookings.size());
+    }
+
+    @Test
+    public void decideBookings() {
+        User user1 = new User();
+        user1.setName("user1");
+        user1.setEmail("user1@yandex.ru");
+
+        User user2 = new User();
+        user2.setName("user2");
+        user2.setEmail("user2@yandex.ru");
+
+        Item item1 = new Item();
+        item1.setName("item1");
+        item1.setDescription("itemDescription1");
+        item1.setAvailable(true);
+        item1.setOwner(user1);
+
+        em.persist(user1);
+        em.persist(user2);
+        em.persist(item1);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking1 = persistBooking(item1, user2, start, start.plusDays(2));
+        Booking booking2 = persistBooking(item1, user2, start.plusDays(1), start.plusDays(3));
+        Booking booking3 = persistBooking(item1, user2, start.plusDays(3), start.plusDays(4));
+
+        List<BookingOutDto> result = bookingService.decideBookings(user1.getId(), List.of(
+                new BookingDecisionDto(booking3.getId(), true),
+                new BookingDecisionDto(booking1.getId(), true),
+                new BookingDecisionDto(booking2.getId(), false)));
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(booking3.getId(), result.get(0).getId());
+        Assertions.assertEquals(APPROVED, result.get(0).getStatus());
+        Assertions.assertEquals(APPROVED, result.get(1).getStatus());
+        Assertions.assertEquals(REJECTED, result.get(2).getStatus());
+        Assertions.assertEquals("item1", result.get(2).getItem().getName());
+        Assertions.assertEquals(REJECTED, em.find(Booking.class, booking2.getId()).getStatus());
+    }
+
+    @Test
+    public void decideBookingsOverlappingApprovals() {
+        User user1 = new User();
+        user1.setName("user1");
+        user1.setEmail("user1@yandex.ru");
+
+        User user2 = new User();
+        user2.setName("user2");
+        user2.setEmail("user2@yandex.ru");
+
+        Item item1 = new Item();
+        item1.setName("item1");
+        item1.setDescription("itemDescription1");
+        item1.setAvailable(true);
+        item1.setOwner(user1);
+
+        em.persist(user1);
+        em.persist(user2);
+        em.persist(item1);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking1 = persistBooking(item1, user2, start, start.plusDays(2));
+        Booking booking2 = persistBooking(item1, user2, start.plusDays(1), start.plusDays(3));
+
+        Assertions.assertThrows(ConflictException.class,
+                () -> bookingService.decideBookings(user1.getId(), List.of(
+                        new BookingDecisionDto(booking1.getId(), true),
+                        new BookingDecisionDto(booking2.getId(), true))));
+        Assertions.assertThrows(NotFoundException.class,
+                () -> bookingService.decideBookings(user2.getId(), List.of(
+                        new BookingDecisionDto(booking1.getId(), true))));
+    }
+
+    private Booking persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(WAITING);
+        booking.setBooker(booker);
+        booking.setItem(item);
+        em.persist(booking);
+        return booking;
+    }
+
+    @Test
+    public void saveNewBookingOverlappingPeriod() {
+        User user1 = new User();
+        user1.setName("user1");
+        user1.setEmail("user1@yandex.ru");
+
+        User user2 = new User();
+        user2.setName("user2");
+        user2.setEmail("user2@yandex.ru");
+
+        Item item1 = new Item();
+        item1.setName("item1");
+        item1.setDescription("itemDescription1");
+        item1.setAvailable(true);
+        item1.setOwner(user1);
+
+        em.persist(user1);
+        em.persist(user2);
+        em.persist(item1);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.saveNewBooking(user2.getId(), new BookingInDto(item1.getId(), start, start.plusDays(2)));
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.saveNewBooking(user2.getId(),
+                        new BookingInDto(item1.getId(), start.plusDays(1), start.plusDays(3))));
+        BookingOutDto adjacent = bookingService.saveNewBooking(user2.getId(),
+                new BookingInDto(item1.getId(), start.plusDays(2), start.plusDays(3)));
+        Assertions.assertEquals(WAITING, adjacent.getStatus());
+    }
+}
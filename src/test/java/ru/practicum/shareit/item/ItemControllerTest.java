@@ -15,6 +15,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -22,7 +23,11 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -33,6 +38,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImportService itemImportService;
     @Autowired
     private MockMvc mockMvc;
     @Autowired
@@ -64,6 +71,54 @@ public class ItemControllerTest {
                 .getItemsByUserId(1L, 0, 10);
     }
 
+    @Test
+    public void importItems() throws Exception {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n";
+        when(itemImportService.importItems(eq(1L), any(), eq(false)))
+                .thenReturn(new ItemImportResultDto(1, 1, 0, false, null, List.of()));
+
+        mockMvc.perform(post("/items/import")
+                        .content(body)
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(ItemImportService.NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.processed").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1));
+        verify(itemImportService, times(1)).importItems(eq(1L), any(), eq(false));
+    }
+
+    @Test
+    public void importItemsAbortedReturnsCounts() throws Exception {
+        when(itemImportService.importItems(eq(1L), any(), eq(false)))
+                .thenReturn(new ItemImportResultDto(1000, 500, 500, true, "Импорт остановлен", List.of()));
+
+        mockMvc.perform(post("/items/import")
+                        .content("{}\n")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(ItemImportService.NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(500))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.aborted").value(true));
+    }
+
+    @Test
+    public void importItemsFromCsv() throws Exception {
+        when(itemImportService.importItems(eq(1L), any(), eq(true)))
+                .thenReturn(new ItemImportResultDto(1, 0, 1, false, null,
+                        List.of(new ItemImportResultDto.LineError(2, "Не задан статус доступности для аренды"))));
+
+        mockMvc.perform(post("/items/import")
+                        .content("name,description,available\nДрель,Простая дрель,\n")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(2));
+    }
+
     @Test
     public void getItemsUnknownUser() throws Exception {
         when(itemService.getItemsByUserId(100L, 0, 10))
@@ -114,6 +169,77 @@ public class ItemControllerTest {
                 .searchItems("abc", 0, 10);
     }
 
+    @Test
+    public void searchItemsByRelevance() throws Exception {
+        when(itemService.searchItemsByRelevance("tem", 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text={text}&sort=relevance", "tem")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(itemDto.getId()));
+        verify(itemService, never()).searchItems(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void searchItemsFuzzy() throws Exception {
+        when(itemService.searchItemsFuzzy("дрел", 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text={text}&fuzzy=true", "дрел")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(itemDto.getId()));
+        verify(itemService, never()).searchItems(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void searchItemsWithUnknownSort() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search?text={text}&sort=price", "tem")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("дре", 5))
+                .thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/suggest?prefix={prefix}&size=5", "дре")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value("Дрель"));
+    }
+
+    @Test
+    public void suggestItemNamesWithBlankPrefix() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/suggest?prefix={prefix}", " ")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(0)));
+        verify(itemService, never()).suggestItemNames(anyString(), anyInt());
+    }
+
+    @Test
+    public void searchAvailableItems() throws Exception {
+        LocalDateTime start = LocalDateTime.parse("2030-05-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2030-05-03T10:00:00");
+        when(itemService.searchAvailableItems("tem", start, end, 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search/available")
+                        .param("text", "tem")
+                        .param("start", "2030-05-01T10:00:00")
+                        .param("end", "2030-05-03T10:00:00")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(itemDto.getId()));
+    }
+
     @Test
     public void getItemById() throws Exception {
         when(itemService.getItemById(anyLong(), anyLong()))
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.RequestJpaRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserLookup;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+public class ItemImportServiceTest {
+    private final ItemImportService itemImportService;
+    private final ItemJpaRepository itemRepository;
+    private final UserJpaRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(new User(null, "owner", "import-owner@yandex.ru"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        itemRepository.deleteAll(itemRepository.findItemByOwnerId(owner.getId(), PageRequest.of(0, 10000)));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    public void importItemsFromNdjsonInChunks() {
+        StringBuilder body = new StringBuilder();
+        int lines = ItemImportService.CHUNK_SIZE * 2 + 10;
+        for (int i = 1; i <= lines; i++) {
+            if (i == 7) {
+                body.append("{\"name\":\"\",\"description\":\"Описание\",\"available\":true}\n");
+            } else if (i == 600) {
+                body.append("{\"name\":\"Дрель\"\n");
+            } else {
+                body.append(String.format("{\"name\":\"Вещь %s\",\"description\":\"Описание %s\",\"available\":true}\n",
+                        i, i));
+            }
+        }
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body.toString()), false);
+
+        Assertions.assertEquals(lines, result.getProcessed());
+        Assertions.assertEquals(lines - 2, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertEquals(7, result.getErrors().get(0).getLine());
+        Assertions.assertEquals("Наименование не может быть пустым или содержать только пробелы",
+                result.getErrors().get(0).getError());
+        Assertions.assertEquals(600, result.getErrors().get(1).getLine());
+        Assertions.assertEquals(lines - 2,
+                itemRepository.findItemByOwnerId(owner.getId(), PageRequest.of(0, 10000)).size());
+    }
+
+    @Test
+    public void importItemsFromCsv() {
+        String body = "name,description,available,requestId\n" +
+                "Дрель,\"Простая дрель, \"\"ударная\"\"\",true,\n" +
+                "\n" +
+                "Отвертка,Аккумуляторная отвертка,maybe,\n" +
+                "Пила,Ручная пила,false,\n";
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body), true);
+        List<Item> items = itemRepository.findItemByOwnerId(owner.getId(), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(3, result.getProcessed());
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(4, result.getErrors().get(0).getLine());
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals("Простая дрель, \"ударная\"", items.get(0).getDescription());
+        Assertions.assertFalse(items.get(1).getAvailable());
+    }
+
+    @Test
+    public void importItemsRejectsTooLongLine() {
+        String body = "{\"name\":\"Дрель\",\"description\":\"" + "д".repeat(ItemImportService.MAX_LINE_LENGTH)
+                + "\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true}\r\n";
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body), false);
+
+        Assertions.assertEquals(2, result.getProcessed());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getErrors().get(0).getLine());
+        Assertions.assertEquals("Строка длиннее 65536 символов", result.getErrors().get(0).getError());
+    }
+
+    @Test
+    public void importItemsStopsAfterFailedChunkAndKeepsCommittedCounts() {
+        ItemJpaRepository failingRepository = mock(ItemJpaRepository.class);
+        RequestJpaRepository requestRepository = mock(RequestJpaRepository.class);
+        UserLookup userLookup = mock(UserLookup.class);
+        when(userLookup.getUser(owner.getId())).thenReturn(owner);
+        when(failingRepository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    long id = 1;
+                    for (Item item : items) {
+                        item.setId(id++);
+                    }
+                    return items;
+                })
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        ItemImportService service = new ItemImportService(failingRepository, new ItemIdFilter(failingRepository),
+                userLookup, requestRepository, mock(ApplicationEventPublisher.class), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class));
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= ItemImportService.CHUNK_SIZE * 3; i++) {
+            body.append(String.format("{\"name\":\"Вещь %s\",\"description\":\"Описание\",\"available\":true}\n", i));
+        }
+
+        ItemImportResultDto result = service.importItems(owner.getId(), stream(body.toString()), false);
+
+        Assertions.assertTrue(result.isAborted());
+        Assertions.assertEquals(ItemImportService.CHUNK_SIZE, result.getImported());
+        Assertions.assertEquals(ItemImportService.CHUNK_SIZE, result.getFailed());
+        Assertions.assertEquals(ItemImportService.CHUNK_SIZE * 2, result.getProcessed());
+        Assertions.assertNotNull(result.getError());
+        verify(failingRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    public void importItemsFromCsvWithoutRequiredColumn() {
+        Assertions.assertThrows(ValidationException.class,
+                () -> itemImportService.importItems(owner.getId(), stream("name,description\nДрель,Дрель\n"), true));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
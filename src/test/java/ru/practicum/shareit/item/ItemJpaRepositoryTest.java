@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingJpaRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestJpaRepository;
@@ -18,6 +23,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.booking.BookingStatus.*;
 
 @DataJpaTest
 public class ItemJpaRepositoryTest {
@@ -27,6 +33,10 @@ public class ItemJpaRepositoryTest {
     private UserJpaRepository userRepository;
     @Autowired
     private RequestJpaRepository requestRepository;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
     private User user1;
     private Item item1;
     private User user2;
@@ -77,13 +87,41 @@ public class ItemJpaRepositoryTest {
 
     @Test
     public void findItemByListRequestIds() {
-        var result = itemRepository.findItemByListRequestIds(List.of(1L));
+        var result = itemRepository.findItemByListRequestIds(List.of(request1.getId()));
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(item1, result.get(0));
     }
 
+    @Test
+    public void searchAndRequestLookupsDoNotLoadOwner() {
+        entityManager.flush();
+        entityManager.clear();
+
+        var searched = itemRepository.search("item1", PageRequest.of(0, 10));
+        var requested = itemRepository.findItemByListRequestIds(List.of(request1.getId()));
+
+        assertEquals(1, searched.size());
+        assertEquals(user1.getId(), searched.get(0).getOwner().getId());
+        assertFalse(Hibernate.isInitialized(searched.get(0).getOwner()));
+        assertEquals(1, requested.size());
+        assertFalse(Hibernate.isInitialized(requested.get(0).getOwner()));
+    }
+
+    @Test
+    public void toStringDoesNotLoadAssociations() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Item item = itemRepository.findById(item1.getId()).orElseThrow();
+        entityManager.clear();
+
+        assertDoesNotThrow(item::toString);
+        assertFalse(Hibernate.isInitialized(item.getOwner()));
+        assertFalse(Hibernate.isInitialized(item.getRequest()));
+    }
+
     @Test
     public void search() {
         Sort idSort = Sort.by("id").descending();
@@ -96,4 +134,62 @@ public class ItemJpaRepositoryTest {
         assertEquals(item2, result.get(0));
         assertEquals(item1, result.get(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void searchMatchesName() {
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("id"));
+
+        var result = itemRepository.search("item2", pageable);
+
+        assertEquals(List.of(item2), result);
+    }
+
+    @Test
+    public void searchByTrigramIndex() {
+        itemRepository.save(new Item(null, "item3", "itemDescription3", false, user2, null));
+        Pageable pageable = FromSizeRequest.of(1, 10, Sort.unsorted());
+
+        var result = itemRepository.searchByTrigramIndex("description", pageable);
+
+        assertEquals(List.of(item2), result);
+    }
+
+    @Test
+    public void findAvailableItemTextsAfter() {
+        itemRepository.save(new Item(null, "item3", "itemDescription3", false, user2, null));
+
+        var result = itemRepository.findAvailableItemTextsAfter(item1.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, result.size());
+        assertEquals(item2.getId(), result.get(0).getId());
+        assertEquals("item2", result.get(0).getName());
+        assertEquals("itemDescription2", result.get(0).getDescription());
+    }
+
+    @Test
+    public void searchAvailable() {
+        LocalDateTime start = LocalDateTime.parse("2030-05-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2030-05-03T10:00:00");
+        bookingRepository.save(new Booking(null, start.minusDays(1), start.plusDays(1), item1, user2, WAITING));
+        bookingRepository.save(new Booking(null, start, end, item2, user1, REJECTED));
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("id"));
+
+        var result = itemRepository.searchAvailable("description",
+                List.of(REJECTED, CANCELED), start, end, pageable);
+
+        assertEquals(List.of(item2), result);
+    }
+
+    @Test
+    public void searchAvailableAdjacentBooking() {
+        LocalDateTime start = LocalDateTime.parse("2030-05-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2030-05-03T10:00:00");
+        bookingRepository.save(new Booking(null, end, end.plusDays(1), item1, user2, APPROVED));
+        bookingRepository.save(new Booking(null, start.minusDays(1), start, item2, user1, APPROVED));
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("id"));
+
+        var result = itemRepository.searchAvailable("ITEM", List.of(REJECTED, CANCELED), start, end, pageable);
+
+        assertEquals(List.of(item1, item2), result);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestJpaRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserLookup;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+public class ItemSecondLevelCacheTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemJpaRepository itemRepository;
+    private final UserJpaRepository userRepository;
+    private final RequestJpaRepository requestRepository;
+    private final UserService userService;
+    private final UserLookup userLookup;
+
+    private Statistics statistics;
+    private User owner;
+    private ItemRequest request;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(new User(null, "owner", "cache-owner@yandex.ru"));
+        request = requestRepository.save(new ItemRequest(null, "Нужна дрель", LocalDateTime.now(), owner));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        item = itemRepository.save(item);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        itemRepository.delete(item);
+        requestRepository.delete(request);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    public void findItemByIdFromSecondLevelCache() {
+        itemRepository.findById(item.getId()).orElseThrow();
+        statistics.clear();
+
+        Item cached = itemRepository.findById(item.getId()).orElseThrow();
+
+        Assertions.assertEquals("Дрель", cached.getName());
+        Assertions.assertEquals(owner.getId(), cached.getOwner().getId());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertTrue(statistics.getDomainDataRegionStatistics("items").getHitCount() > 0);
+    }
+
+    @Test
+    public void findRequestByIdFromSecondLevelCache() {
+        requestRepository.findById(request.getId()).orElseThrow();
+        statistics.clear();
+
+        ItemRequest cached = requestRepository.findById(request.getId()).orElseThrow();
+
+        Assertions.assertEquals("Нужна дрель", cached.getDescription());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateUserRefreshesSecondLevelCache() {
+        itemRepository.findById(item.getId()).orElseThrow();
+
+        userService.updateUser(owner.getId(), new UserDto(null, "updated", null));
+        statistics.clear();
+
+        User cached = userRepository.findById(owner.getId()).orElseThrow();
+        Item cachedItem = itemRepository.findById(item.getId()).orElseThrow();
+
+        Assertions.assertEquals("updated", cached.getName());
+        Assertions.assertEquals(owner.getId(), cachedItem.getOwner().getId());
+        Assertions.assertEquals("cache-owner@yandex.ru", cached.getEmail());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getUserFromSecondLevelCache() {
+        userLookup.getUser(owner.getId());
+        statistics.clear();
+
+        User cached = userLookup.getUser(owner.getId());
+        userLookup.checkExists(owner.getId());
+
+        Assertions.assertEquals("owner", cached.getName());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
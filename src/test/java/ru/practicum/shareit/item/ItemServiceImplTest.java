@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.Booking;
@@ -10,18 +13,26 @@ import ru.practicum.shareit.booking.BookingJpaRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingLastDto;
 import ru.practicum.shareit.booking.dto.BookingNextDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestJpaRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserIdFilter;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +43,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 import static ru.practicum.shareit.booking.BookingStatus.CANCELED;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
 
 public class ItemServiceImplTest {
     private ItemJpaRepository itemRepository;
@@ -39,6 +51,9 @@ public class ItemServiceImplTest {
     private RequestJpaRepository requestRepository;
     private CommentJpaRepository commentRepository;
     private BookingJpaRepository bookingRepository;
+    private ItemSearchEngine searchEngine;
+    private ItemSuggestIndex suggestIndex;
+    private ApplicationEventPublisher eventPublisher;
     private ItemService itemService;
     private User user1;
     private User user2;
@@ -56,9 +71,16 @@ public class ItemServiceImplTest {
         requestRepository = mock(RequestJpaRepository.class);
         commentRepository = mock(CommentJpaRepository.class);
         bookingRepository = mock(BookingJpaRepository.class);
+        searchEngine = mock(ItemSearchEngine.class);
+        suggestIndex = mock(ItemSuggestIndex.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
-        itemService = new ItemServiceImpl(
-                itemRepository, userRepository, requestRepository, commentRepository, bookingRepository);
+        itemService = new ItemServiceImpl(itemRepository, new ItemIdFilter(itemRepository),
+                new UserLookup(userRepository, new UserIdFilter(userRepository), 1024), requestRepository,
+                commentRepository, bookingRepository, searchEngine, suggestIndex,
+                new ItemSearchCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                new ItemDetailsCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                eventPublisher);
 
         user1 = new User(1L, "user1", "user1@yandex.ru");
         user2 = new User(2L, "user2", "user2@yandex.ru");
@@ -96,19 +118,18 @@ public class ItemServiceImplTest {
 
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
         when(itemRepository.findItemByOwnerId(user1.getId(), pageable)).thenReturn(List.of(item1));
-        when(commentRepository.findCommentByItem_Id((item1.getId()))).thenReturn(Collections.emptyList());
-        when(bookingRepository.findBookingByItemIdAndStartIsBefore(
-                anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking1));
-        when(bookingRepository.findBookingByItemIdAndStartIsAfterAndStatusIsNot(
-                anyLong(), any(LocalDateTime.class), any(), any()))
-                .thenReturn(List.of(booking2));
+        when(commentRepository.findCommentByItemIds(List.of(item1.getId()))).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastBookingsByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(makeBookingShort(booking1)));
+        when(bookingRepository.findNextBookingsByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(makeBookingShort(booking2)));
 
         var result = itemService.getItemsByUserId(user1.getId(), 0, 10);
 
         assertNotNull(result);
         Assertions.assertEquals(1, result.size());
         Assertions.assertEquals(itemDto1, result.get(0));
+        verify(commentRepository, never()).findCommentByItem_Id(anyLong());
     }
 
     @Test
@@ -138,10 +159,12 @@ public class ItemServiceImplTest {
         Assertions.assertEquals(0, result.size());
         verify(commentRepository, never())
                 .findCommentByItem_Id(anyLong());
+        verify(commentRepository, never())
+                .findCommentByItemIds(anyList());
         verify(bookingRepository, never())
-                .findBookingByItemIdAndEndIsBefore(anyLong(), any(LocalDateTime.class), any());
+                .findLastBookingsByItemIds(anyList(), any(LocalDateTime.class));
         verify(bookingRepository, never())
-                .findBookingByItemOwnerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any());
+                .findNextBookingsByItemIds(anyList(), any(LocalDateTime.class));
     }
 
     @Test
@@ -160,12 +183,12 @@ public class ItemServiceImplTest {
 
         when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
         when(commentRepository.findCommentByItem_Id((item1.getId()))).thenReturn(Collections.emptyList());
-        when(bookingRepository.findBookingByItemIdAndEndIsBefore(
+        when(bookingRepository.findLastBookingByItemId(
                 anyLong(), any(LocalDateTime.class), any()))
-                .thenReturn(List.of(booking1));
-        when(bookingRepository.findBookingByItemIdAndStartIsAfterAndStatusIsNot(
+                .thenReturn(List.of(makeBookingShort(booking1)));
+        when(bookingRepository.findNextBookingByItemId(
                 anyLong(), any(LocalDateTime.class), any(), any()))
-                .thenReturn(List.of(booking2));
+                .thenReturn(List.of(makeBookingShort(booking2)));
 
         var result = itemService.getItemById(user1.getId(), item1.getId());
 
@@ -173,6 +196,12 @@ public class ItemServiceImplTest {
         Assertions.assertEquals(item1.getAvailable(), result.getAvailable());
         Assertions.assertEquals(user1.getId(), result.getOwner());
         Assertions.assertEquals(null, result.getRequestId());
+        Assertions.assertEquals(booking1.getId(), result.getLastBooking().getId());
+        Assertions.assertEquals(user2.getId(), result.getLastBooking().getBookerId());
+        Assertions.assertEquals(booking2.getId(), result.getNextBooking().getId());
+        Assertions.assertEquals(user3.getId(), result.getNextBooking().getBookerId());
+        verify(bookingRepository, times(1))
+                .findLastBookingByItemId(eq(item1.getId()), any(LocalDateTime.class), eq(PageRequest.of(0, 1)));
     }
 
     @Test
@@ -187,13 +216,68 @@ public class ItemServiceImplTest {
                 });
     }
 
+    @Test
+    public void getItemByIdIsCachedUntilUpdate() {
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
+        when(commentRepository.findCommentByItem_Id(item1.getId())).thenReturn(List.of());
+
+        itemService.getItemById(user2.getId(), item1.getId());
+        var cached = itemService.getItemById(user2.getId(), item1.getId());
+
+        Assertions.assertEquals("item1", cached.getName());
+        verify(commentRepository, times(1)).findCommentByItem_Id(item1.getId());
+
+        itemService.updateItem(user1.getId(), item1.getId(), makeItemDto("updateItem", null, null));
+        var updated = itemService.getItemById(user2.getId(), item1.getId());
+
+        Assertions.assertEquals("updateItem", updated.getName());
+        verify(commentRepository, times(2)).findCommentByItem_Id(item1.getId());
+    }
+
+    @Test
+    public void getItemByIdCachesOwnerBookingsSeparately() {
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
+        when(commentRepository.findCommentByItem_Id(item1.getId())).thenReturn(List.of());
+        when(bookingRepository.findLastBookingByItemId(anyLong(), any(), any()))
+                .thenReturn(List.of(makeBookingShort(booking1)));
+        when(bookingRepository.findNextBookingByItemId(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        var notOwner = itemService.getItemById(user2.getId(), item1.getId());
+        var owner = itemService.getItemById(user1.getId(), item1.getId());
+        var ownerAgain = itemService.getItemById(user1.getId(), item1.getId());
+
+        Assertions.assertNull(notOwner.getLastBooking());
+        Assertions.assertEquals(booking1.getId(), owner.getLastBooking().getId());
+        Assertions.assertEquals(booking1.getId(), ownerAgain.getLastBooking().getId());
+        Assertions.assertNull(itemService.getItemById(user2.getId(), item1.getId()).getLastBooking());
+        verify(bookingRepository, times(1)).findLastBookingByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    public void getItemByIdRejectsIdMissingFromFilter() {
+        ItemIdFilter itemIdFilter = new ItemIdFilter(itemRepository);
+        itemService = new ItemServiceImpl(itemRepository, itemIdFilter,
+                new UserLookup(userRepository, new UserIdFilter(userRepository), 1024), requestRepository,
+                commentRepository, bookingRepository, searchEngine, suggestIndex,
+                new ItemSearchCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                new ItemDetailsCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                eventPublisher);
+        when(itemRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 3L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item1));
+        itemIdFilter.rebuild();
+
+        Assertions.assertThrows(NotFoundException.class, () -> itemService.getItemById(1L, 2L));
+        Assertions.assertEquals(item1.getId(), itemService.getItemById(1L, 1L).getId());
+        verify(itemRepository, never()).findById(2L);
+    }
+
     @Test
     public void searchItems() {
         ItemDto itemDto2 = makeItemDto("item2", "itemDescription2", true);
         List<ItemDto> itemDtos = List.of(itemDto1, itemDto2);
         Pageable pageable = FromSizeRequest.of(0, 10, Sort.unsorted());
 
-        when(itemRepository.search("tion", pageable)).thenReturn(List.of(item1, item2));
+        when(searchEngine.search("tion", pageable)).thenReturn(List.of(item1, item2));
 
         var result = itemService.searchItems("tion", 0, 10);
 
@@ -201,19 +285,76 @@ public class ItemServiceImplTest {
         Assertions.assertEquals(2, result.size());
         Assertions.assertEquals(itemDtos.get(0).getName(), result.get(0).getName());
         Assertions.assertEquals(itemDtos.get(1).getName(), result.get(1).getName());
-        verify(itemRepository, times(1)).search("tion", pageable);
+        verify(searchEngine, times(1)).search("tion", pageable);
     }
 
     @Test
     public void searchItemsWithEmptyResult() {
         Pageable pageable = FromSizeRequest.of(0, 10, Sort.unsorted());
-        when(itemRepository.search("abc", pageable)).thenReturn(Collections.emptyList());
+        when(searchEngine.search("abc", pageable)).thenReturn(Collections.emptyList());
 
         var result = itemService.searchItems("abc", 0, 10);
 
         assertNotNull(result);
         Assertions.assertEquals(0, result.size());
-        verify(itemRepository, times(1)).search("abc", pageable);
+        verify(searchEngine, times(1)).search("abc", pageable);
+    }
+
+    @Test
+    public void searchItemsByRelevance() {
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.unsorted());
+        when(searchEngine.searchByRelevance("tion", pageable)).thenReturn(List.of(item2, item1));
+
+        var result = itemService.searchItemsByRelevance("TION", 0, 10);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(item2.getId(), result.get(0).getId());
+        verify(searchEngine, never()).search(any(), any());
+    }
+
+    @Test
+    public void searchItemsFuzzy() {
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.unsorted());
+        when(searchEngine.searchFuzzy("дрел", pageable)).thenReturn(List.of(item1));
+
+        var result = itemService.searchItemsFuzzy("Дрел", 0, 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(item1.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void suggestItemNames() {
+        when(suggestIndex.suggest("дре", 5)).thenReturn(List.of("Дрель"));
+
+        var result = itemService.suggestItemNames("дре", 5);
+
+        Assertions.assertEquals(List.of("Дрель"), result);
+    }
+
+    @Test
+    public void searchAvailableItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        Pageable pageable = FromSizeRequest.of(0, 10, Sort.by("id"));
+        when(itemRepository.searchAvailable("tion", List.of(REJECTED, CANCELED), start, end, pageable))
+                .thenReturn(List.of(item1));
+
+        var result = itemService.searchAvailableItems("TION", start, end, 0, 10);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(item1.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void searchAvailableItemsWithWrongPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> {
+                    itemService.searchAvailableItems("tion", start, start, 0, 10);
+                });
+        verify(itemRepository, never()).searchAvailable(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -227,6 +368,7 @@ public class ItemServiceImplTest {
         Assertions.assertEquals(item1.getAvailable(), result.getAvailable());
         Assertions.assertEquals(user1.getId(), result.getOwner());
         Assertions.assertEquals(null, result.getRequestId());
+        verify(eventPublisher).publishEvent(ItemChangedEvent.of(item1));
     }
 
     @Test
@@ -274,6 +416,9 @@ public class ItemServiceImplTest {
         Assertions.assertEquals("updateDescription", result.getDescription());
         Assertions.assertEquals(false, result.getAvailable());
         Assertions.assertEquals(user1.getId(), result.getOwner());
+        verify(eventPublisher).publishEvent(
+                new ItemChangedEvent(item1.getId(), "updateItem", "updateDescription", false,
+                        "item1", "itemDescription1"));
     }
 
     @Test
@@ -382,6 +527,25 @@ public class ItemServiceImplTest {
                 });
     }
 
+    private BookingShort makeBookingShort(Booking booking) {
+        return new BookingShort() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+        };
+    }
+
     private ItemDto makeItemDto(String name, String description, Boolean available) {
         ItemDto itemDto = new ItemDto();
         itemDto.setName(name);
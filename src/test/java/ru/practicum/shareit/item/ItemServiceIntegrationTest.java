@@ -6,12 +6,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.shareit.booking.BookingStatus.*;
 
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -43,4 +49,48 @@ public class ItemServiceIntegrationTest {
         Assertions.assertEquals(item.getAvailable(), itemDto.getAvailable());
         Assertions.assertEquals(item.getOwner().getEmail(), user.getEmail());
     }
+
+    @Test
+    public void getItemsByUserIdWithBookingsAndComments() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@yandex.ru");
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@yandex.ru");
+        em.persist(owner);
+        em.persist(booker);
+
+        Item item1 = new Item(null, "item1", "itemDescription1", true, owner, null);
+        Item item2 = new Item(null, "item2", "itemDescription2", true, owner, null);
+        em.persist(item1);
+        em.persist(item2);
+
+        LocalDateTime nowDate = LocalDateTime.now();
+        Booking past = new Booking(null, nowDate.minusDays(10), nowDate.minusDays(9), item1, booker, APPROVED);
+        Booking last = new Booking(null, nowDate.minusDays(2), nowDate.minusDays(1), item1, booker, APPROVED);
+        Booking rejected = new Booking(null, nowDate.plusDays(1), nowDate.plusDays(2), item1, booker, REJECTED);
+        Booking next = new Booking(null, nowDate.plusDays(3), nowDate.plusDays(4), item1, booker, WAITING);
+        Booking future = new Booking(null, nowDate.plusDays(5), nowDate.plusDays(6), item1, booker, WAITING);
+        List.of(past, last, rejected, next, future).forEach(em::persist);
+        em.persist(new Comment(null, "comment1", item1, booker, nowDate));
+        em.persist(new Comment(null, "comment2", item1, booker, nowDate));
+        em.flush();
+
+        List<ItemDto> itemDtos = itemService.getItemsByUserId(owner.getId(), 0, 10);
+
+        Assertions.assertEquals(2, itemDtos.size());
+        ItemDto itemDto1 = itemDtos.get(0);
+        Assertions.assertEquals(item1.getId(), itemDto1.getId());
+        Assertions.assertEquals(2, itemDto1.getComments().size());
+        Assertions.assertEquals(booker.getName(), itemDto1.getComments().get(0).getAuthorName());
+        Assertions.assertEquals(last.getId(), itemDto1.getLastBooking().getId());
+        Assertions.assertEquals(booker.getId(), itemDto1.getLastBooking().getBookerId());
+        Assertions.assertEquals(next.getId(), itemDto1.getNextBooking().getId());
+        ItemDto itemDto2 = itemDtos.get(1);
+        Assertions.assertEquals(item2.getId(), itemDto2.getId());
+        Assertions.assertTrue(itemDto2.getComments().isEmpty());
+        Assertions.assertNull(itemDto2.getLastBooking());
+        Assertions.assertNull(itemDto2.getNextBooking());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FuzzyVocabularyTest {
+    @Test
+    public void distanceIsBounded() {
+        assertEquals(0, FuzzyVocabulary.distance("дрель", "дрель", 2));
+        assertEquals(1, FuzzyVocabulary.distance("дрел", "дрель", 2));
+        assertEquals(2, FuzzyVocabulary.distance("отвертка", "атвертко", 2));
+        assertEquals(2, FuzzyVocabulary.distance("дрель", "отвертка", 1));
+    }
+
+    @Test
+    public void tokensSplitOnNonLetters() {
+        assertEquals(Set.of("дрель", "ударная", "600вт"), FuzzyVocabulary.tokens("дрель-ударная, 600вт"));
+    }
+
+    @Test
+    public void matchFindsMisspelledTokens() {
+        FuzzyVocabulary vocabulary = new FuzzyVocabulary();
+        vocabulary.add(1, Set.of("дрель", "простая"));
+        vocabulary.add(2, Set.of("отвертка"));
+        vocabulary.add(3, Set.of("дрели"));
+
+        assertEquals(Map.of(1, 1, 3, 1), vocabulary.match("дрел"));
+        assertEquals(Map.of(2, 1), vocabulary.match("отвёртка"));
+        assertEquals(Map.of(), vocabulary.match("пила"));
+
+        vocabulary.remove(3, Set.of("дрели"));
+        assertEquals(Map.of(1, 1), vocabulary.match("дрел"));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.dto.ItemText;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.validation.FromSizeRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class InvertedIndexSearchEngineTest {
+    private ItemJpaRepository itemRepository;
+    private InvertedIndexSearchEngine searchEngine;
+    private Item item1;
+    private Item item2;
+    private Pageable pageable;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemJpaRepository.class);
+        searchEngine = new InvertedIndexSearchEngine(itemRepository);
+        User user = new User(1L, "user1", "user1@yandex.ru");
+        item1 = new Item(1L, "Дрель", "Простая дрель", true, user, null);
+        item2 = new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, user, null);
+        pageable = FromSizeRequest.of(0, 10, Sort.unsorted());
+    }
+
+    @Test
+    public void searchFallsBackToRepositoryBeforeRebuild() {
+        when(itemRepository.search("дрель", pageable)).thenReturn(List.of(item1));
+
+        var result = searchEngine.search("дрель", pageable);
+
+        Assertions.assertEquals(List.of(item1), result);
+        verify(itemRepository).search("дрель", pageable);
+    }
+
+    @Test
+    public void searchUsesIndexAfterRebuild() {
+        when(itemRepository.findAvailableItemTextsAfter(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of(makeItemText(item1), makeItemText(item2)));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item2, item1));
+        searchEngine.rebuild();
+
+        var result = searchEngine.search("р", pageable);
+
+        Assertions.assertEquals(List.of(item1, item2), result);
+        verify(itemRepository).findAllById(Set.of(1L, 2L));
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    public void onItemChangedUpdatesIndex() {
+        when(itemRepository.findAvailableItemTextsAfter(anyLong(), any())).thenReturn(List.of());
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item1));
+        searchEngine.rebuild();
+
+        searchEngine.onItemChanged(ItemChangedEvent.of(item1));
+        Assertions.assertEquals(List.of(item1), searchEngine.search("дрел", pageable));
+
+        searchEngine.onItemChanged(new ItemChangedEvent(1L, "Дрель", "Простая дрель", false));
+        Assertions.assertEquals(List.of(), searchEngine.search("дрел", pageable));
+    }
+
+    @Test
+    public void rebuildDoesNotOverwriteNewerChanges() {
+        when(itemRepository.findAvailableItemTextsAfter(0L, PageRequest.of(0, 1000))).thenAnswer(invocation -> {
+            searchEngine.onItemChanged(new ItemChangedEvent(1L, "Перфоратор", "Мощный перфоратор", true));
+            searchEngine.onItemChanged(new ItemChangedEvent(2L, "Отвертка", "Аккумуляторная отвертка", false));
+            return List.of(makeItemText(item1), makeItemText(item2));
+        });
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item1));
+        searchEngine.rebuild();
+
+        Assertions.assertEquals(List.of(), searchEngine.search("дрел", pageable));
+        Assertions.assertEquals(List.of(), searchEngine.search("отвертка", pageable));
+        Assertions.assertEquals(List.of(item1), searchEngine.search("перфоратор", pageable));
+    }
+
+    private ItemText makeItemText(Item item) {
+        return new ItemText() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+        };
+    }
+}
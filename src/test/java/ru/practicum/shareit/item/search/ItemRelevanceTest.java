@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.validation.FromSizeRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemRelevanceTest {
+    @Test
+    public void nameHitBeatsAnyDescriptionHits() {
+        int nameHit = ItemRelevance.score("дрел", "дрели", "");
+        int descriptionHits = ItemRelevance.score("дрель", "набор", "дрель дрель дрель дрель дрель дрель");
+
+        assertTrue(nameHit > descriptionHits);
+    }
+
+    @Test
+    public void exactMatchBeatsWordMatchBeatsSubstring() {
+        int exact = ItemRelevance.score("дрель", "дрель", "");
+        int word = ItemRelevance.score("дрель", "дрель ударная", "");
+        int substring = ItemRelevance.score("дрель", "аккумуляторнаядрель", "");
+
+        assertTrue(exact > word);
+        assertTrue(word > substring);
+    }
+
+    @Test
+    public void termFrequencyRaisesScore() {
+        assertTrue(ItemRelevance.score("клей", "набор", "клей и клей")
+                > ItemRelevance.score("клей", "набор", "клей для дерева"));
+    }
+
+    @Test
+    public void rankKeepsOnlyRequestedPage() {
+        Item item1 = new Item(1L, "Набор", "дрель", true, null, null);
+        Item item2 = new Item(2L, "Дрель", "", true, null, null);
+        Item item3 = new Item(3L, "Дрель ударная", "дрель", true, null, null);
+
+        var result = ItemRelevance.rank(List.of(item1, item2, item3), "ДРЕЛЬ",
+                FromSizeRequest.of(1, 2, Sort.unsorted()));
+
+        assertEquals(List.of(item3, item1), result);
+    }
+
+    @Test
+    public void topKBreaksTiesByLowerId() {
+        TopK topK = new TopK(2);
+        topK.offer(3L, 10);
+        topK.offer(1L, 10);
+        topK.offer(2L, 10);
+        topK.offer(4L, 5);
+
+        assertEquals(List.of(1L, 2L), List.of(topK.best(0)[0], topK.best(0)[1]));
+    }
+
+    @Test
+    public void rankWithHugeOffsetReturnsEmptyPage() {
+        Item item1 = new Item(1L, "Дрель", "", true, null, null);
+
+        var result = ItemRelevance.rank(List.of(item1), "дрель",
+                FromSizeRequest.of(2_000_000_000, Integer.MAX_VALUE, Sort.unsorted()));
+
+        assertEquals(List.of(), result);
+    }
+
+    @Test
+    public void topKCapacityIsBoundedByCandidates() {
+        assertEquals(3, TopK.capacity(2_000_000_000L, Integer.MAX_VALUE, 3));
+        assertEquals(7, TopK.capacity(2, 5, 10));
+    }
+}
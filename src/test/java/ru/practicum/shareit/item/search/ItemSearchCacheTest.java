@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemSearchCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache searchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchCache = new ItemSearchCache(100, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void repeatedQueryIsServedFromCache() {
+        search("дрель", 0, 10);
+        search("дрель", 0, 10);
+        search("дрель", 10, 10);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch")
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void entriesExpireAfterTtl() throws InterruptedException {
+        searchCache = new ItemSearchCache(100, Duration.ofMillis(10), meterRegistry);
+        search("дрель", 0, 10);
+        Thread.sleep(50);
+        search("дрель", 0, 10);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void unrelatedChangeKeepsEntry() {
+        search("дрель", 0, 10);
+        searchCache.onItemChanged(new ItemChangedEvent(1L, "Палатка", "Двухместная", true));
+        search("дрель", 0, 10);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void matchingChangeInvalidatesEntry() {
+        search("дрель", 0, 10);
+        searchCache.onItemChanged(new ItemChangedEvent(1L, "Набор", "Ударная дрель", true));
+        search("дрель", 0, 10);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void renameAwayFromQueryInvalidatesEntry() {
+        search("дрель", 0, 10);
+        searchCache.onItemChanged(new ItemChangedEvent(1L, "Пила", "", true, "Дрель", ""));
+        search("дрель", 0, 10);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shortQueryInvalidatedByContainingText() {
+        search("ль", 0, 10);
+        searchCache.onItemChanged(new ItemChangedEvent(1L, "Руль", "", false));
+        search("ль", 0, 10);
+
+        assertEquals(2, loads.get());
+    }
+
+    private List<ItemDto> search(String text, int from, int size) {
+        return searchCache.get("plain", text, from, size, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemJpaRepository;
+import ru.practicum.shareit.item.dto.ItemText;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSuggestIndexTest {
+    private ItemJpaRepository itemRepository;
+    private ItemSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemJpaRepository.class);
+        suggestIndex = new ItemSuggestIndex(itemRepository);
+        suggestIndex.put(1L, "Дрель");
+        suggestIndex.put(2L, "Дрель ударная");
+        suggestIndex.put(3L, "Отвертка");
+        suggestIndex.put(4L, "Дрель");
+    }
+
+    @Test
+    public void suggestByNamePrefix() {
+        assertEquals(List.of("Дрель", "Дрель ударная"), suggestIndex.suggest("ДР", 10));
+        assertEquals(List.of("Дрель"), suggestIndex.suggest("др", 1));
+        assertEquals(List.of(), suggestIndex.suggest("пила", 10));
+    }
+
+    @Test
+    public void suggestByWordPrefix() {
+        assertEquals(List.of("Дрель ударная"), suggestIndex.suggest("удар", 10));
+    }
+
+    @Test
+    public void onItemChangedRenamesAndRemoves() {
+        suggestIndex.onItemChanged(new ItemChangedEvent(2L, "Перфоратор", "", true));
+        assertEquals(List.of(), suggestIndex.suggest("удар", 10));
+        assertEquals(List.of("Перфоратор"), suggestIndex.suggest("пер", 10));
+
+        suggestIndex.onItemChanged(new ItemChangedEvent(3L, "Отвертка", "", false));
+        assertEquals(List.of(), suggestIndex.suggest("отв", 10));
+    }
+
+    @Test
+    public void rebuildDoesNotOverwriteNewerChanges() {
+        ItemSuggestIndex index = new ItemSuggestIndex(itemRepository);
+        when(itemRepository.findAvailableItemTextsAfter(0L, PageRequest.of(0, 1000))).thenAnswer(invocation -> {
+            index.onItemChanged(new ItemChangedEvent(1L, "Перфоратор", "", true));
+            index.onItemChanged(new ItemChangedEvent(2L, "Отвертка", "", false));
+            return List.of(makeItemText(1L, "Дрель"), makeItemText(2L, "Отвертка"), makeItemText(3L, "Пила"));
+        });
+        index.rebuild();
+
+        assertEquals(List.of(), index.suggest("др", 10));
+        assertEquals(List.of(), index.suggest("отв", 10));
+        assertEquals(List.of("Перфоратор"), index.suggest("пер", 10));
+        assertEquals(List.of("Пила"), index.suggest("пил", 10));
+    }
+
+    private ItemText makeItemText(long id, String name) {
+        return new ItemText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "";
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemJpaRepository;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class JpqlSearchEngineTest {
+    @Test
+    public void fuzzySearchIsRejected() {
+        ItemJpaRepository itemRepository = mock(ItemJpaRepository.class);
+        JpqlSearchEngine searchEngine = new JpqlSearchEngine(itemRepository);
+
+        assertThrows(ValidationException.class, () -> searchEngine.searchFuzzy("дрел", PageRequest.of(0, 10)));
+        verify(itemRepository, never()).search(anyString(), any());
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NgramIndexTest {
+    private NgramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NgramIndex();
+        index.put(1L, "Дрель", "Простая дрель");
+        index.put(2L, "Отвертка", "Аккумуляторная отвертка");
+        index.put(3L, "Клей Момент", "Тюбик суперклея");
+    }
+
+    @Test
+    public void searchShortQuery() {
+        assertArrayEquals(new long[]{1L}, index.search("дре", 0, 10));
+        assertArrayEquals(new long[]{2L, 3L}, index.search("к", 0, 10));
+    }
+
+    @Test
+    public void searchIsCaseInsensitiveSubstring() {
+        assertArrayEquals(new long[]{2L}, index.search("АККУМУЛЯТОР", 0, 10));
+        assertArrayEquals(new long[]{3L}, index.search("клей момент", 0, 10));
+        assertArrayEquals(new long[0], index.search("клей дрель", 0, 10));
+    }
+
+    @Test
+    public void searchVerifiesCandidates() {
+        index.put(4L, "абвгд", "");
+        index.put(5L, "гдабв", "");
+
+        assertArrayEquals(new long[]{4L}, index.search("абвгд", 0, 10));
+    }
+
+    @Test
+    public void searchWithOffsetAndLimit() {
+        assertArrayEquals(new long[]{3L}, index.search("к", 1, 10));
+        assertArrayEquals(new long[]{2L}, index.search("к", 0, 1));
+    }
+
+    @Test
+    public void searchWithHugeOffsetAndLimit() {
+        assertArrayEquals(new long[0], index.search("к", 2_000_000_000L, Integer.MAX_VALUE));
+        assertArrayEquals(new long[0], index.searchRanked("дрель", 2_000_000_000L, Integer.MAX_VALUE));
+        assertArrayEquals(new long[0], index.searchFuzzy("дрель", 2_000_000_000L, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{2L, 3L}, index.search("к", 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{1L}, index.searchRanked("дрель", 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void repeatedUpdatesReuseDocSlots() {
+        for (int i = 0; i < 1000; i++) {
+            index.put(1L, "Дрель " + i, "Простая дрель");
+            index.remove(2L);
+            index.put(2L, "Отвертка", "Аккумуляторная отвертка");
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(3, index.slots());
+        assertArrayEquals(new long[]{1L}, index.search("дрель 999", 0, 10));
+        assertArrayEquals(new long[0], index.search("дрель 998", 0, 10));
+    }
+
+    @Test
+    public void searchRankedPrefersNameHits() {
+        index.put(4L, "Набор", "Дрель, биты и дрель-шуруповерт");
+        index.put(5L, "Дрель ударная", "");
+
+        assertArrayEquals(new long[]{1L, 5L, 4L}, index.searchRanked("дрель", 0, 10));
+        assertArrayEquals(new long[]{5L}, index.searchRanked("дрель", 1, 1));
+    }
+
+    @Test
+    public void searchFuzzyToleratesTypos() {
+        index.put(4L, "Дрели набор", "");
+
+        assertArrayEquals(new long[]{1L, 4L}, index.searchFuzzy("дрел", 0, 10));
+        assertArrayEquals(new long[]{2L}, index.searchFuzzy("атвертка аккумуляторная", 0, 10));
+        assertArrayEquals(new long[0], index.searchFuzzy("дрел отвертка", 0, 10));
+        assertArrayEquals(new long[]{4L}, index.searchFuzzy("дрел", 1, 10));
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() {
+        index.put(1L, "Перфоратор", "Мощный");
+        assertArrayEquals(new long[0], index.search("дрель", 0, 10));
+        assertArrayEquals(new long[]{1L}, index.search("перфо", 0, 10));
+
+        index.remove(1L);
+        assertArrayEquals(new long[0], index.search("перфо", 0, 10));
+        assertArrayEquals(new long[0], index.searchFuzzy("перфоратор", 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void searchMatchesLinearScan() {
+        Random random = new Random(7);
+        String alphabet = "абвгде";
+        List<String> texts = new ArrayList<>();
+        NgramIndex randomIndex = new NgramIndex();
+        for (int i = 0; i < 500; i++) {
+            String text = randomWord(random, alphabet, 12);
+            texts.add(text);
+            randomIndex.put(i, text, null);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String query = randomWord(random, alphabet, 1 + random.nextInt(5));
+            long expected = texts.stream().filter(text -> text.contains(query)).count();
+            assertEquals(expected, randomIndex.search(query, 0, 1000).length);
+        }
+    }
+
+    private String randomWord(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
@@ -11,6 +11,8 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.RequestInDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserJpaRepository;
+import ru.practicum.shareit.user.UserIdFilter;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.validation.FromSizeRequest;
 
 import java.time.LocalDateTime;
@@ -41,7 +43,8 @@ public class RequestServiceImplTest {
         requestRepository = mock(RequestJpaRepository.class);
         itemRepository = mock(ItemJpaRepository.class);
         userRepository = mock(UserJpaRepository.class);
-        requestService = new RequestServiceImpl(requestRepository, userRepository, itemRepository);
+        requestService = new RequestServiceImpl(requestRepository, new UserLookup(userRepository, new UserIdFilter(userRepository), 1024),
+                itemRepository);
 
         user1 = new User(1L, "user1", "user1@yandex.ru");
         user2 = new User(2L, "user2", "user2@yandex.ru");
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class UserJpaRepositoryTest {
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void saveAllBatchesInsertsAndPoolsIds() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(new User(null, "user" + i, "batch" + i + "@yandex.ru"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<User> saved = userRepository.saveAll(users);
+        userRepository.flush();
+
+        statistics.setStatisticsEnabled(false);
+        assertEquals(120, saved.size());
+        assertEquals(120, saved.stream().map(User::getId).distinct().count());
+        assertTrue(statistics.getPrepareStatementCount() <= 8);
+    }
+}
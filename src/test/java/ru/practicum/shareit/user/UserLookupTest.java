@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserLookupTest {
+    private UserJpaRepository userRepository;
+    private UserLookup userLookup;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserJpaRepository.class);
+        userLookup = new UserLookup(userRepository, new UserIdFilter(userRepository), 16);
+        user = new User(1L, "user1", "user1@yandex.ru");
+    }
+
+    @Test
+    public void checkExistsHitsDatabaseOnlyOnce() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        userLookup.checkExists(user.getId());
+        userLookup.checkExists(user.getId());
+
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
+    @Test
+    public void checkExistsUnknownUser() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NotFoundException.class, () -> userLookup.checkExists(99L));
+        Assertions.assertThrows(NotFoundException.class, () -> userLookup.checkExists(99L));
+        verify(userRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    public void evictForcesReload() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user), Optional.empty());
+
+        userLookup.checkExists(user.getId());
+        userLookup.evict(user.getId());
+
+        Assertions.assertThrows(NotFoundException.class, () -> userLookup.checkExists(user.getId()));
+    }
+
+    @Test
+    public void collidingIdsDisplaceEachOther() {
+        UserLookup tiny = new UserLookup(userRepository, new UserIdFilter(userRepository), 1);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.of(new User(invocation.getArgument(0), "user", "user@yandex.ru")));
+
+        for (long id = 1; id <= 10; id++) {
+            tiny.checkExists(id);
+        }
+        tiny.checkExists(10L);
+
+        verify(userRepository, times(10)).findById(anyLong());
+    }
+
+    @Test
+    public void idsMissingFromFilterAreRejectedWithoutDatabase() {
+        UserIdFilter userIdFilter = new UserIdFilter(userRepository);
+        UserLookup filtered = new UserLookup(userRepository, userIdFilter, 16);
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 3L));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(new User(3L, "user3", "user3@yandex.ru")));
+        userIdFilter.rebuild();
+
+        Assertions.assertThrows(NotFoundException.class, () -> filtered.checkExists(2L));
+        filtered.checkExists(3L);
+
+        verify(userRepository, never()).findById(2L);
+        verify(userRepository).findById(3L);
+    }
+}
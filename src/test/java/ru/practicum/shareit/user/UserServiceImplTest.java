@@ -22,7 +22,9 @@ public class UserServiceImplTest {
     @BeforeEach
     public void setUp() {
         userRepository = mock(UserJpaRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        UserIdFilter userIdFilter = new UserIdFilter(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserLookup(userRepository, userIdFilter, 1024),
+                userIdFilter);
 
         user = new User(1L, "testUser", "test@email.ru");
         userDto = new UserDto(1L, "testUser", "test@email.ru");
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KnownIdFilterTest {
+    @Test
+    public void everyIdMightExistBeforeRebuild() {
+        KnownIdFilter filter = filter((lastId, limit) -> List.of());
+
+        assertFalse(filter.isAbsent(1L));
+        assertFalse(filter.isAbsent(100L));
+    }
+
+    @Test
+    public void rebuildMarksGapsBelowWatermarkAsAbsent() {
+        KnownIdFilter filter = filter((lastId, limit) -> lastId == 0 ? List.of(1L, 2L, 5L) : List.of());
+        filter.rebuild();
+
+        assertFalse(filter.isAbsent(2L));
+        assertTrue(filter.isAbsent(3L));
+        assertTrue(filter.isAbsent(-1L));
+        assertFalse(filter.isAbsent(5L));
+        assertFalse(filter.isAbsent(6L));
+    }
+
+    @Test
+    public void addedIdsAreKnown() {
+        KnownIdFilter filter = filter((lastId, limit) -> lastId == 0 ? List.of(1L, 5L) : List.of());
+        filter.rebuild();
+        filter.add(3L);
+
+        assertFalse(filter.isAbsent(3L));
+    }
+
+    @Test
+    public void idsAddedWhileRebuildingSurviveSwap() {
+        KnownIdFilter[] holder = new KnownIdFilter[1];
+        holder[0] = filter((lastId, limit) -> {
+            holder[0].add(4L);
+            return lastId == 0 ? List.of(1L, 5L) : List.of();
+        });
+        holder[0].rebuild();
+
+        assertFalse(holder[0].isAbsent(4L));
+        assertTrue(holder[0].isAbsent(3L));
+    }
+
+    @Test
+    public void deletedIdsAreAbsentAfterRebuild() {
+        List<List<Long>> scans = new ArrayList<>(List.of(List.of(1L, 4L, 5L), List.of(1L, 5L)));
+        KnownIdFilter filter = filter((lastId, limit) -> lastId == 0 ? scans.remove(0) : List.of());
+        filter.rebuild();
+        assertFalse(filter.isAbsent(4L));
+
+        filter.rebuild();
+
+        assertTrue(filter.isAbsent(4L));
+        assertFalse(filter.isAbsent(5L));
+    }
+
+    @Test
+    public void idsAddedInTransactionAreKnownOnlyAfterCommit() {
+        KnownIdFilter filter = filter((lastId, limit) -> lastId == 0 ? List.of(1L, 5L) : List.of());
+        filter.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.add(3L);
+            assertTrue(filter.isAbsent(3L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(filter.isAbsent(3L));
+    }
+
+    @Test
+    public void rebuildLoadsInChunks() {
+        KnownIdFilter filter = filter((lastId, limit) -> LongStream.iterate(lastId + 2, id -> id + 2)
+                .limit(limit)
+                .filter(id -> id <= 25000)
+                .boxed()
+                .collect(Collectors.toList()));
+        filter.rebuild();
+
+        assertFalse(filter.isAbsent(24000L));
+        assertTrue(filter.isAbsent(24001L));
+    }
+
+    private KnownIdFilter filter(BiFunction<Long, Integer, List<Long>> loader) {
+        return new KnownIdFilter() {
+            @Override
+            protected List<Long> loadIdsAfter(long lastId, int limit) {
+                return loader.apply(lastId, limit);
+            }
+        };
+    }
+}